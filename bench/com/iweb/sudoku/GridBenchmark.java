@@ -0,0 +1,75 @@
+package com.iweb.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+@State(Scope.Thread)
+public class GridBenchmark {
+    @Param({"EASY", "SOLVE_ME", "VERY_HARD", "ANOTHER_ONE_VERY_HARD"})
+    public PuzzleCorpus tier;
+
+    private Grid grid;
+    private String puzzle;
+    private final StringBuilder text = new StringBuilder(GridRenderer.BOX_LENGTH);
+    private final byte[] bytes = new byte[GridRenderer.BOX_LENGTH];
+    private GridSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        puzzle = tier.getPuzzle();
+        grid = tier.createGrid();
+        snapshot = grid.snapshot();
+    }
+
+    @Benchmark
+    public void getCandidatesFor(final Blackhole blackhole) {
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            final List<Integer> candidates = grid.getCandidatesFor(cellIndex);
+            blackhole.consume(candidates);
+        }
+    }
+
+    @Benchmark
+    public void getCandidateMaskFor(final Blackhole blackhole) {
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            blackhole.consume(grid.getCandidateMaskFor(cellIndex));
+        }
+    }
+
+    @Benchmark
+    public Grid loadGridFromString() {
+        final Grid loaded = new Grid();
+        loaded.loadGridFromString(puzzle);
+        return loaded;
+    }
+
+    @Benchmark
+    public String toStringBox() {
+        return grid.toString();
+    }
+
+    @Benchmark
+    public StringBuilder appendBox() {
+        text.setLength(0);
+        return GridRenderer.appendBox(grid, text);
+    }
+
+    @Benchmark
+    public byte[] writeCompact() {
+        GridRenderer.writeCompact(grid, bytes, 0);
+        return bytes;
+    }
+
+    @Benchmark
+    public Grid snapshotAndRestore() {
+        grid.snapshot(snapshot);
+        grid.restore(snapshot);
+        return grid;
+    }
+}
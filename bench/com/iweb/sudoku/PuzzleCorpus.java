@@ -0,0 +1,29 @@
+package com.iweb.sudoku;
+
+// Puzzles benchmarked by difficulty tier
+public enum PuzzleCorpus {
+    // Only naked singles needed
+    EASY("..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3.."),
+    // Same puzzle as bin/Sudoku-SolveMe.txt
+    SOLVE_ME("...|.1.|..5 .3.|8..|..4 81.|..2|6.. ...|5.4|.6. 94.|7.6|.53 .8.|1.3|... ..9|6..|.48 4..|..8|.9. 7..|.4.|..."),
+    // SolverTest.testThatSolverSolvesAVeryHardProblem
+    VERY_HARD(".......1.4.........2...........5.4.7..8...3....1.9....3..4..2...5.1........8.6..."),
+    // SolverTest.testThatSolverSolvesAnotherOneVeryHardProblem
+    ANOTHER_ONE_VERY_HARD(".....6....59.....82....8....45........3........6..3.54...325..6..................");
+
+    private final String puzzle;
+
+    PuzzleCorpus(final String puzzle) {
+        this.puzzle = puzzle;
+    }
+
+    public String getPuzzle() {
+        return puzzle;
+    }
+
+    public Grid createGrid() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(puzzle);
+        return grid;
+    }
+}
@@ -0,0 +1,65 @@
+package com.iweb.sudoku;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Every solve works on a fresh copy of the puzzle grid, the copy being part of the measure
+@State(Scope.Thread)
+public class SolverBenchmark {
+    @Param({"EASY", "SOLVE_ME", "VERY_HARD", "ANOTHER_ONE_VERY_HARD"})
+    public PuzzleCorpus tier;
+
+    private Grid puzzle;
+    private final SolverMetrics metrics = new SolverMetrics();
+    private final LockstepSolver lockstepSolver = new LockstepSolver();
+    private final Grid[] lockstepGrids = new Grid[LockstepSolver.DEFAULT_LANES];
+
+    @Setup
+    public void setUp() {
+        puzzle = tier.createGrid();
+    }
+
+    @Benchmark
+    public boolean hasDuplicates() {
+        return new Solver(puzzle).hasDuplicates();
+    }
+
+    @Benchmark
+    public boolean solveRowMajor() {
+        return new Solver(puzzle.copy()).solve();
+    }
+
+    @Benchmark
+    public boolean solveFewestCandidatesWithPropagation() {
+        final Solver solver = new Solver(puzzle.copy(), SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        return solver.solve();
+    }
+
+    @Benchmark
+    public boolean solveFewestCandidatesWithPropagationAndMetrics() {
+        final Solver solver = new Solver(puzzle.copy(), SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.setMetrics(metrics);
+        return solver.solve();
+    }
+
+    @Benchmark
+    public boolean solveDancingLinks() {
+        return new DancingLinksSolver(puzzle.copy()).solve();
+    }
+
+    // A full chunk of copies, scored per puzzle to compare with the scalar solves
+    @Benchmark
+    @OperationsPerInvocation(LockstepSolver.DEFAULT_LANES)
+    public int solveLockstep() {
+        for (int i = 0; i < lockstepGrids.length; ++i) {
+            lockstepGrids[i] = puzzle.copy();
+        }
+        return lockstepSolver.solve(lockstepGrids, lockstepGrids.length);
+    }
+}
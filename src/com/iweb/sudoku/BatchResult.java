@@ -0,0 +1,34 @@
+package com.iweb.sudoku;
+
+public class BatchResult {
+    private final int puzzleCount;
+    private final int solvedCount;
+    private final long elapsedNanos;
+
+    public BatchResult(final int puzzleCount, final int solvedCount, final long elapsedNanos) {
+        this.puzzleCount = puzzleCount;
+        this.solvedCount = solvedCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getPuzzleCount() {
+        return puzzleCount;
+    }
+
+    public int getSolvedCount() {
+        return solvedCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzleCount * 1e9 / elapsedNanos;
+    }
+
+    public String toString() {
+        return puzzleCount + " puzzles, " + solvedCount + " solved in " + (elapsedNanos / 1000000) + "ms ("
+                + Math.round(getPuzzlesPerSecond()) + " puzzles/sec)";
+    }
+}
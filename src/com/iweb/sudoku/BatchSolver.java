@@ -0,0 +1,370 @@
+package com.iweb.sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Solves one puzzle per input line, in any format read by GridParser, and writes one line
+// per puzzle in the same order: its solution, or an empty line when it has none.
+public class BatchSolver {
+    // Puzzles read ahead of the one being written, per worker
+    private static final int PENDING_PUZZLES_PER_WORKER = 64;
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private final int parallelism;
+    private SolutionCache solutionCache;
+    private SolverMetrics metrics;
+    private boolean lockstep;
+
+    public BatchSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchSolver(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    // Repeated puzzles, up to symmetry, are then answered from the cache
+    public void setSolutionCache(final SolutionCache solutionCache) {
+        this.solutionCache = solutionCache;
+    }
+
+    public void setMetrics(final SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Puzzles are then solved a chunk at a time by a LockstepSolver, which suits batches of easy
+    // and medium puzzles. Ignored when a solution cache is set. The metrics then count the
+    // puzzles of each lockstep outcome, and record the scalar solves of those needing guesses.
+    public void setLockstep(final boolean lockstep) {
+        this.lockstep = lockstep;
+    }
+
+    public BatchResult solve(final Reader input, final Writer output) throws IOException {
+        final long start = System.nanoTime();
+        final BufferedReader reader = new BufferedReader(input);
+        final OrderedSolutions solutions = new OrderedSolutions(output);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().length() == 0) {
+                    continue; // with next line
+                }
+                solutions.submit(line);
+            }
+            return solutions.finish(start);
+        }
+        finally {
+            solutions.shutdown();
+        }
+    }
+
+    public BatchResult solve(final MappedPuzzleReader input, final Writer output) throws IOException {
+        final long start = System.nanoTime();
+        final OrderedSolutions solutions = new OrderedSolutions(output);
+        try {
+            while (solutions.submitNext(input)) {
+                // until the end of the input
+            }
+            return solutions.finish(start);
+        }
+        finally {
+            solutions.shutdown();
+        }
+    }
+
+    // Solves the submitted puzzles in parallel, a chunk per task, and writes their solutions
+    // in submission order
+    private class OrderedSolutions {
+        private final Writer output;
+        private final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        private final Deque<ForkJoinTask<SolvedLines>> pending = new ArrayDeque<ForkJoinTask<SolvedLines>>();
+        private final boolean chunkedLockstep = lockstep && solutionCache == null;
+        private final int chunkSize = chunkedLockstep ? LockstepSolver.DEFAULT_LANES : 1;
+        private final int maxPending = parallelism * Math.max(PENDING_PUZZLES_PER_WORKER, 2 * chunkSize);
+        // Lockstep chunk being filled, and those written already, ready to be filled again
+        private LockstepChunk chunk = chunkedLockstep ? new LockstepChunk(chunkSize) : null;
+        private final Deque<LockstepChunk> spareChunks = new ArrayDeque<LockstepChunk>();
+        // One solver per worker, reused for every chunk it solves
+        private final ThreadLocal<LockstepSolver> lockstepSolvers = new ThreadLocal<LockstepSolver>() {
+            protected LockstepSolver initialValue() {
+                final LockstepSolver solver = new LockstepSolver(chunkSize);
+                solver.setMetrics(metrics);
+                return solver;
+            }
+        };
+        // Solution line being written, reused for every puzzle
+        private final char[] line = new char[GridRenderer.COMPACT_LENGTH + 1];
+        private int pendingCount = 0;
+        private int puzzleCount = 0;
+        private int solvedCount = 0;
+
+        private OrderedSolutions(final Writer output) {
+            this.output = output;
+        }
+
+        private void submit(final String text) throws IOException {
+            if (chunkedLockstep) {
+                submitLine(GridParser.parse(text, chunk.cells, chunk.getNextCellOffset()).isValid());
+            } else {
+                final Grid puzzle = new Grid();
+                submitPuzzle(puzzle.loadGridFromString(text) ? puzzle : null);
+            }
+        }
+
+        // Returns false at the end of the input
+        private boolean submitNext(final MappedPuzzleReader input) throws IOException {
+            if (chunkedLockstep) {
+                final ParseResult result = input.next(chunk.cells, chunk.getNextCellOffset());
+                if (result == null) {
+                    return false;
+                }
+                submitLine(result.isValid());
+            } else {
+                final Grid puzzle = new Grid();
+                final ParseResult result = input.next(puzzle);
+                if (result == null) {
+                    return false;
+                }
+                submitPuzzle(result.isValid() ? puzzle : null);
+            }
+            return true;
+        }
+
+        // A null puzzle stands for an invalid line
+        private void submitPuzzle(final Grid puzzle) throws IOException {
+            puzzleCount++;
+            submitTask(createSolveTask(puzzle, solutionCache, metrics), 1);
+        }
+
+        // The line was parsed into the next cells of the chunk
+        private void submitLine(final boolean valid) throws IOException {
+            puzzleCount++;
+            chunk.addLine(valid);
+            if (chunk.isFull()) {
+                submitChunk();
+            }
+        }
+
+        private void submitChunk() throws IOException {
+            if (!chunkedLockstep || chunk.lineCount == 0) {
+                return;
+            }
+            final LockstepChunk full = chunk;
+            chunk = spareChunks.isEmpty() ? new LockstepChunk(chunkSize) : spareChunks.removeFirst();
+            submitTask(createLockstepTask(full, lockstepSolvers), full.lineCount);
+        }
+
+        private void submitTask(final Callable<SolvedLines> task, final int lineCount) throws IOException {
+            pending.addLast(pool.submit(task));
+            pendingCount += lineCount;
+            while (pendingCount >= maxPending) {
+                writeOldest();
+            }
+        }
+
+        private BatchResult finish(final long start) throws IOException {
+            submitChunk();
+            while (!pending.isEmpty()) {
+                writeOldest();
+            }
+            output.flush();
+            return new BatchResult(puzzleCount, solvedCount, System.nanoTime() - start);
+        }
+
+        private void shutdown() {
+            pool.shutdownNow();
+        }
+
+        private void writeOldest() throws IOException {
+            final SolvedLines solutions = pending.removeFirst().join();
+            solvedCount += solutions.writeTo(output, line);
+            pendingCount -= solutions.getLineCount();
+            if (chunkedLockstep) {
+                final LockstepChunk written = (LockstepChunk) solutions;
+                written.clear();
+                spareChunks.addLast(written);
+            }
+        }
+    }
+
+    // What a task hands to the writer: the solutions of consecutive lines
+    private interface SolvedLines {
+        int getLineCount();
+
+        // Writes one line per input line, empty when it has no solution. Returns how many were solved.
+        int writeTo(Writer output, char[] line) throws IOException;
+    }
+
+    private static class SolvedGrid implements SolvedLines {
+        private final Grid solution;
+
+        private SolvedGrid(final Grid solution) {
+            this.solution = solution;
+        }
+
+        public int getLineCount() {
+            return 1;
+        }
+
+        public int writeTo(final Writer output, final char[] line) throws IOException {
+            final int length = solution == null ? 0 : GridRenderer.writeCompact(solution, line, 0);
+            line[length] = '\n';
+            output.write(line, 0, length + 1);
+            return solution == null ? 0 : 1;
+        }
+    }
+
+    // The puzzles of consecutive lines as cell values, parsed straight into the cells and solved
+    // there by a LockstepSolver. Filled and written by the submitting thread, solved by a worker.
+    private static class LockstepChunk implements SolvedLines {
+        private final byte[] cells;
+        // Per line, false when it doesn't hold a grid
+        private final boolean[] valid;
+        // Per puzzle, in the order of the cells
+        private final boolean[] solved;
+        private int lineCount = 0;
+        private int puzzleCount = 0;
+
+        private LockstepChunk(final int size) {
+            cells = new byte[size * Grid.CELL_COUNT];
+            valid = new boolean[size];
+            solved = new boolean[size];
+        }
+
+        private int getNextCellOffset() {
+            return puzzleCount * Grid.CELL_COUNT;
+        }
+
+        private void addLine(final boolean parsed) {
+            valid[lineCount++] = parsed;
+            if (parsed) {
+                puzzleCount++;
+            }
+        }
+
+        private boolean isFull() {
+            return lineCount == valid.length;
+        }
+
+        private void solve(final LockstepSolver solver) {
+            solver.solve(cells, puzzleCount);
+            for (int puzzle = 0; puzzle < puzzleCount; ++puzzle) {
+                solved[puzzle] = solver.isSolved(puzzle);
+            }
+        }
+
+        private void clear() {
+            lineCount = 0;
+            puzzleCount = 0;
+        }
+
+        public int getLineCount() {
+            return lineCount;
+        }
+
+        public int writeTo(final Writer output, final char[] line) throws IOException {
+            int solvedCount = 0;
+            int puzzle = 0;
+            for (int i = 0; i < lineCount; ++i) {
+                int length = 0;
+                if (valid[i]) {
+                    if (solved[puzzle]) {
+                        length = GridRenderer.writeCompact(cells, puzzle * Grid.CELL_COUNT, line, 0);
+                        solvedCount++;
+                    }
+                    puzzle++;
+                }
+                line[length] = '\n';
+                output.write(line, 0, length + 1);
+            }
+            return solvedCount;
+        }
+    }
+
+    private static Callable<SolvedLines> createSolveTask(final Grid puzzle, final SolutionCache cache,
+                                                         final SolverMetrics metrics) {
+        return new Callable<SolvedLines>() {
+            public SolvedLines call() {
+                final boolean solved = puzzle != null
+                        && (cache == null ? solve(puzzle, metrics) : solve(puzzle, cache, metrics));
+                return new SolvedGrid(solved ? puzzle : null);
+            }
+        };
+    }
+
+    // The chunk is owned by the task until written
+    private static Callable<SolvedLines> createLockstepTask(final LockstepChunk chunk,
+                                                            final ThreadLocal<LockstepSolver> solvers) {
+        return new Callable<SolvedLines>() {
+            public SolvedLines call() {
+                chunk.solve(solvers.get());
+                return chunk;
+            }
+        };
+    }
+
+    static String solveToString(final String puzzle) {
+        final Grid grid = new Grid();
+        return grid.loadGridFromString(puzzle) && solve(grid, (SolverMetrics) null) ? grid.toCompactString() : "";
+    }
+
+    private static boolean solve(final Grid grid, final SolverMetrics metrics) {
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.setMetrics(metrics);
+        return !solver.hasDuplicates() && solver.solve();
+    }
+
+    private static boolean solve(final Grid grid, final SolutionCache cache, final SolverMetrics metrics) {
+        final CachingSolver solver = new CachingSolver(grid, cache);
+        solver.setMetrics(metrics);
+        return solver.solve();
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BatchSolver <puzzle file> <solution file> [parallelism [cache capacity|lockstep]]");
+            System.exit(-1);
+        }
+        final BatchSolver batchSolver = args.length < 3 ? new BatchSolver() : new BatchSolver(Integer.parseInt(args[2]));
+        final boolean lockstep = args.length >= 4 && "lockstep".equals(args[3]);
+        final SolutionCache solutionCache = args.length < 4 || lockstep ? null : new SolutionCache(Integer.parseInt(args[3]));
+        batchSolver.setSolutionCache(solutionCache);
+        batchSolver.setLockstep(lockstep);
+        final SolverMetrics metrics = new SolverMetrics();
+        batchSolver.setMetrics(metrics);
+
+        final MappedPuzzleReader input = new MappedPuzzleReader(new File(args[0]));
+        try {
+            final Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]), ASCII));
+            try {
+                System.out.println(batchSolver.solve(input, output));
+                if (solutionCache != null) {
+                    System.out.println(solutionCache);
+                }
+                System.out.print(metrics.snapshot());
+            }
+            finally {
+                output.close();
+            }
+        }
+        finally {
+            input.close();
+        }
+    }
+}
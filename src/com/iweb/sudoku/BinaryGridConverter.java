@@ -0,0 +1,114 @@
+package com.iweb.sudoku;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+// Converts between text files of puzzles, one per line or boxed, and binary grid archives.
+// Packing stops at the first puzzle that isn't valid, see pack.
+public class BinaryGridConverter {
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    public enum TextFormat {
+        // One line per grid
+        COMPACT,
+        // The boxed format of Grid.toString, grids separated by a blank line
+        BOX
+    }
+
+    private BinaryGridConverter() {
+    }
+
+    // Returns the number of grids packed. Blank lines are skipped, but a line that doesn't hold
+    // a grid fails the whole pack: grid n of the archive is always the n-th puzzle of the text.
+    public static int pack(final MappedPuzzleReader input, final BinaryGridWriter output) throws IOException {
+        return pack(input, output, TextFormat.COMPACT);
+    }
+
+    // Boxed grids are read by counting cells over lines, so the blank lines between them are optional
+    public static int pack(final MappedPuzzleReader input, final BinaryGridWriter output, final TextFormat format)
+            throws IOException {
+        final Grid grid = new Grid();
+        int gridCount = 0;
+        ParseResult result;
+        while ((result = format == TextFormat.BOX ? input.nextMultiLine(grid) : input.next(grid)) != null) {
+            if (!result.isValid()) {
+                throw new IOException("Line " + input.getLineNumber() + " doesn't hold a grid: " + result);
+            }
+            output.write(grid);
+            gridCount++;
+        }
+        output.flush();
+        return gridCount;
+    }
+
+    // Writes one grid per line in the compact format, returns the number of grids unpacked
+    public static int unpack(final BinaryGridReader input, final Writer output) throws IOException {
+        return unpack(input, output, TextFormat.COMPACT);
+    }
+
+    public static int unpack(final BinaryGridReader input, final Writer output, final TextFormat format)
+            throws IOException {
+        final Grid grid = new Grid();
+        // Text of a grid, followed by the blank line ending a boxed grid
+        final char[] text = new char[GridRenderer.BOX_LENGTH + 2];
+        int gridCount = 0;
+        while (input.next(grid)) {
+            int length = format == TextFormat.BOX
+                    ? GridRenderer.writeBox(grid, text, 0)
+                    : GridRenderer.writeCompact(grid, text, 0);
+            text[length++] = '\n';
+            if (format == TextFormat.BOX) {
+                text[length++] = '\n';
+            }
+            output.write(text, 0, length);
+            gridCount++;
+        }
+        output.flush();
+        return gridCount;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 3 || !("pack".equals(args[0]) || "unpack".equals(args[0]))) {
+            System.out.println("Usage: BinaryGridConverter pack <text file> <binary file> [box]");
+            System.out.println("       BinaryGridConverter unpack <binary file> <text file> [box]");
+            System.exit(-1);
+        }
+        final TextFormat format = args.length >= 4 && "box".equals(args[3]) ? TextFormat.BOX : TextFormat.COMPACT;
+
+        if ("pack".equals(args[0])) {
+            final MappedPuzzleReader input = new MappedPuzzleReader(new File(args[1]));
+            try {
+                final BinaryGridWriter output = new BinaryGridWriter(new FileOutputStream(args[2]).getChannel());
+                try {
+                    System.out.println(pack(input, output, format) + " grids packed");
+                }
+                finally {
+                    output.close();
+                }
+            }
+            finally {
+                input.close();
+            }
+        } else {
+            final BinaryGridReader input = new BinaryGridReader(new FileInputStream(args[1]).getChannel());
+            try {
+                final Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[2]), ASCII));
+                try {
+                    System.out.println(unpack(input, output, format) + " grids unpacked");
+                }
+                finally {
+                    output.close();
+                }
+            }
+            finally {
+                input.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.iweb.sudoku;
+
+import java.nio.ByteBuffer;
+
+// Packs a grid in 41 bytes, 4 bits per cell in row-major order, high nibble first.
+// An empty cell is 0, the last low nibble is unused.
+public class BinaryGridFormat {
+    public static final int GRID_BYTES = (Grid.CELL_COUNT + 1) / 2;
+
+    // Written once at the start of a binary archive
+    static final byte[] MAGIC = {'S', 'D', 'K', '1'};
+
+    private BinaryGridFormat() {
+    }
+
+    // Writes GRID_BYTES bytes at the buffer position
+    public static void encode(final Grid grid, final ByteBuffer target) {
+        checkLayout(grid);
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; cellIndex += 2) {
+            final int high = grid.getCellValue(cellIndex);
+            final int low = cellIndex + 1 < Grid.CELL_COUNT ? grid.getCellValue(cellIndex + 1) : 0;
+            target.put((byte) (high << 4 | low));
+        }
+    }
+
+    // Reads GRID_BYTES bytes from the buffer position
+    public static void decode(final ByteBuffer source, final Grid target) {
+        checkLayout(target);
+        target.clear();
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; cellIndex += 2) {
+            final int packed = source.get() & 0xFF;
+            target.setCell(cellIndex, checkedValue(packed >>> 4, cellIndex));
+            if (cellIndex + 1 < Grid.CELL_COUNT) {
+                target.setCell(cellIndex + 1, checkedValue(packed & 0x0F, cellIndex + 1));
+            }
+        }
+    }
+
+    private static void checkLayout(final Grid grid) {
+        if (grid.getSize() != Grid.SIZE) {
+            throw new IllegalArgumentException("Only 9x9 grids are packed, got " + grid.getLayout());
+        }
+    }
+
+    private static int checkedValue(final int value, final int cellIndex) {
+        if (value > Grid.SIZE) {
+            throw new IllegalArgumentException("Invalid value " + value + " for cell " + cellIndex);
+        }
+        return value;
+    }
+}
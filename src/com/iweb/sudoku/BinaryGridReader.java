@@ -0,0 +1,60 @@
+package com.iweb.sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+// Reads the grids written by BinaryGridWriter from a channel
+public class BinaryGridReader implements Closeable {
+    private static final int BUFFERED_GRIDS = 4096;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFERED_GRIDS * BinaryGridFormat.GRID_BYTES);
+    private boolean endOfChannel = false;
+
+    public BinaryGridReader(final ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        fill(BinaryGridFormat.MAGIC.length);
+        for (final byte magic : BinaryGridFormat.MAGIC) {
+            if (!buffer.hasRemaining() || buffer.get() != magic) {
+                throw new IOException("Not a binary grid archive");
+            }
+        }
+    }
+
+    // Returns false at the end of the channel
+    public boolean next(final Grid target) throws IOException {
+        fill(BinaryGridFormat.GRID_BYTES);
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        if (buffer.remaining() < BinaryGridFormat.GRID_BYTES) {
+            throw new IOException("Truncated grid at the end of the archive");
+        }
+        try {
+            BinaryGridFormat.decode(buffer, target);
+        }
+        catch (final IllegalArgumentException e) {
+            throw new IOException("Corrupted grid: " + e.getMessage());
+        }
+        return true;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Reads from the channel until at least the given byte count is buffered or the channel ends
+    private void fill(final int byteCount) throws IOException {
+        if (buffer.remaining() >= byteCount || endOfChannel) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < byteCount && !endOfChannel) {
+            endOfChannel = channel.read(buffer) < 0;
+        }
+        buffer.flip();
+    }
+}
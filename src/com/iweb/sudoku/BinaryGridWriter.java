@@ -0,0 +1,43 @@
+package com.iweb.sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+// Writes grids in BinaryGridFormat to a channel, after the archive magic bytes
+public class BinaryGridWriter implements Closeable {
+    private static final int BUFFERED_GRIDS = 4096;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFERED_GRIDS * BinaryGridFormat.GRID_BYTES);
+
+    public BinaryGridWriter(final WritableByteChannel channel) {
+        this.channel = channel;
+        buffer.put(BinaryGridFormat.MAGIC);
+    }
+
+    public void write(final Grid grid) throws IOException {
+        if (buffer.remaining() < BinaryGridFormat.GRID_BYTES) {
+            flush();
+        }
+        BinaryGridFormat.encode(grid, buffer);
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
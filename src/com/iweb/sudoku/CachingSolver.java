@@ -0,0 +1,59 @@
+package com.iweb.sudoku;
+
+// Looks the canonical form of the puzzle up in a solution cache before searching.
+// A cached solution is mapped back to the orientation and digits of the grid,
+// otherwise the grid is solved with propagation and minimum remaining values
+// and its solution cached.
+public class CachingSolver implements GridSolver {
+    private final Grid grid;
+    private final SolutionCache cache;
+    private SolverMetrics metrics;
+    private SolveStatistics statistics = new SolveStatistics();
+
+    public CachingSolver(final Grid grid, final SolutionCache cache) {
+        if (grid.getSize() != Grid.SIZE) {
+            throw new IllegalArgumentException("Only 9x9 grids are cached, got " + grid.getLayout());
+        }
+        this.grid = grid;
+        this.cache = cache;
+    }
+
+    // Solves answered from the cache are recorded too, with no tries
+    public void setMetrics(final SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean solve() {
+        final long start = System.nanoTime();
+        final CanonicalForm form = CanonicalForm.of(grid);
+        final byte[] cachedSolution = cache.get(form);
+        if (cachedSolution != null) {
+            form.fromCanonicalValues(cachedSolution, grid);
+            statistics = new SolveStatistics();
+            statistics.outcome = SolveOutcome.SOLVED;
+            statistics.elapsedNanos = System.nanoTime() - start;
+            if (metrics != null) {
+                metrics.recordSolve(statistics);
+            }
+            return true;
+        }
+
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.setMetrics(metrics);
+        final boolean solved = !solver.hasDuplicates() && solver.solve();
+        statistics = solver.getStatistics();
+        if (statistics.outcome == null) {
+            statistics.outcome = SolveOutcome.UNSOLVABLE; // rejected for its duplicates
+        }
+        if (solved) {
+            cache.put(form, form.toCanonicalValues(grid));
+        }
+        statistics.elapsedNanos = System.nanoTime() - start;
+        return solved;
+    }
+
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+}
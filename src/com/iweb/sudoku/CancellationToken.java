@@ -0,0 +1,23 @@
+package com.iweb.sudoku;
+
+public class CancellationToken {
+    private final CancellationToken parent;
+    private volatile boolean cancelled = false;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    // Also cancelled once the parent is, so a search can be stopped from outside and from within
+    public CancellationToken(final CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+}
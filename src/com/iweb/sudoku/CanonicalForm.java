@@ -0,0 +1,144 @@
+package com.iweb.sudoku;
+
+// A representative of a puzzle among the puzzles equal to it under transposition,
+// row permutation within a band, column permutation within a stack and digit relabeling.
+// Rows are ordered within their band and columns within their stack by keys that none of
+// these changes affect, the orientation giving the smallest key is kept and digits are
+// then numbered by order of first appearance.
+// Ties between keys keep the given order, so equal puzzles may get different forms, but
+// two puzzles with the same form always are the same puzzle up to these symmetries.
+public class CanonicalForm {
+    private static final int BOX_SIZE = 3;
+
+    private final String key;
+    // Cell of the original grid at each cell of the canonical form
+    private final int[] sourceCells = new int[Grid.CELL_COUNT];
+    // Canonical digit of each original digit, and the other way around
+    private final int[] canonicalDigits = new int[Grid.SIZE + 1];
+    private final int[] originalDigits = new int[Grid.SIZE + 1];
+
+    private CanonicalForm(final Grid grid, final boolean transposed) {
+        final int[] rowKeys = new int[Grid.SIZE];
+        final int[] columnKeys = new int[Grid.SIZE];
+        computeLineKeys(grid, transposed, rowKeys, columnKeys);
+        final int[] rowOrder = orderWithinBoxes(rowKeys);
+        final int[] columnOrder = orderWithinBoxes(columnKeys);
+
+        for (int row = 0; row < Grid.SIZE; ++row) {
+            for (int column = 0; column < Grid.SIZE; ++column) {
+                sourceCells[row * Grid.SIZE + column] = orientedCell(rowOrder[row], columnOrder[column], transposed);
+            }
+        }
+
+        final char[] chars = new char[Grid.CELL_COUNT];
+        int nextDigit = 0;
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            final int value = grid.getCellValue(sourceCells[cellIndex]);
+            if (value != Grid.EMPTY && canonicalDigits[value] == 0) {
+                canonicalDigits[value] = ++nextDigit;
+            }
+            chars[cellIndex] = value == Grid.EMPTY ? '.' : (char) ('0' + canonicalDigits[value]);
+        }
+        // Digits missing from the puzzle take the numbers left, so the relabeling stays a permutation
+        for (int value = 1; value <= Grid.SIZE; ++value) {
+            if (canonicalDigits[value] == 0) {
+                canonicalDigits[value] = ++nextDigit;
+            }
+            originalDigits[canonicalDigits[value]] = value;
+        }
+        key = new String(chars);
+    }
+
+    public static CanonicalForm of(final Grid grid) {
+        if (grid.getSize() != Grid.SIZE) {
+            throw new IllegalArgumentException("Only 9x9 grids have a canonical form, got " + grid.getLayout());
+        }
+        final CanonicalForm direct = new CanonicalForm(grid, false);
+        final CanonicalForm transposed = new CanonicalForm(grid, true);
+        return transposed.key.compareTo(direct.key) < 0 ? transposed : direct;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Values of the grid cells, relabeled and laid out as in the canonical form
+    public byte[] toCanonicalValues(final Grid grid) {
+        final byte[] values = new byte[Grid.CELL_COUNT];
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            values[cellIndex] = (byte) canonicalDigits[grid.getCellValue(sourceCells[cellIndex])];
+        }
+        return values;
+    }
+
+    // Writes values laid out as in the canonical form back in the orientation and digits of the grid
+    public void fromCanonicalValues(final byte[] values, final Grid target) {
+        target.clear();
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            target.setCell(sourceCells[cellIndex], originalDigits[values[cellIndex]]);
+        }
+    }
+
+    private static int orientedCell(final int row, final int column, final boolean transposed) {
+        return transposed ? column * Grid.SIZE + row : row * Grid.SIZE + column;
+    }
+
+    // A row key is made of its number of givens in each stack, then of the number of givens
+    // in the columns of its givens. Column keys are the same, bands taking the place of stacks.
+    private static void computeLineKeys(final Grid grid, final boolean transposed,
+                                        final int[] rowKeys, final int[] columnKeys) {
+        final int[] rowTotals = new int[Grid.SIZE];
+        final int[] columnTotals = new int[Grid.SIZE];
+        final int[] rowCountsPerStack = new int[Grid.SIZE * BOX_SIZE];
+        final int[] columnCountsPerBand = new int[Grid.SIZE * BOX_SIZE];
+        for (int row = 0; row < Grid.SIZE; ++row) {
+            for (int column = 0; column < Grid.SIZE; ++column) {
+                if (grid.cellHasValue(orientedCell(row, column, transposed))) {
+                    rowTotals[row]++;
+                    columnTotals[column]++;
+                    rowCountsPerStack[row * BOX_SIZE + column / BOX_SIZE]++;
+                    columnCountsPerBand[column * BOX_SIZE + row / BOX_SIZE]++;
+                }
+            }
+        }
+
+        for (int line = 0; line < Grid.SIZE; ++line) {
+            rowKeys[line] = countsKey(rowCountsPerStack, line);
+            columnKeys[line] = countsKey(columnCountsPerBand, line);
+        }
+        for (int row = 0; row < Grid.SIZE; ++row) {
+            for (int column = 0; column < Grid.SIZE; ++column) {
+                if (grid.cellHasValue(orientedCell(row, column, transposed))) {
+                    rowKeys[row] += columnTotals[column];
+                    columnKeys[column] += rowTotals[row];
+                }
+            }
+        }
+    }
+
+    // Counts of 0 to 3 in base 4, shifted above any sum of line totals (at most 81)
+    private static int countsKey(final int[] counts, final int line) {
+        final int first = line * BOX_SIZE;
+        return (counts[first] * 16 + counts[first + 1] * 4 + counts[first + 2]) << 7;
+    }
+
+    // Lines of each box sorted by decreasing key, ties keeping their order
+    private static int[] orderWithinBoxes(final int[] keys) {
+        final int[] order = new int[Grid.SIZE];
+        for (int line = 0; line < Grid.SIZE; ++line) {
+            order[line] = line;
+        }
+        for (int first = 0; first < Grid.SIZE; first += BOX_SIZE) {
+            for (int i = first + 1; i < first + BOX_SIZE; ++i) {
+                final int line = order[i];
+                int j = i;
+                while (j > first && keys[order[j - 1]] < keys[line]) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = line;
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,125 @@
+package com.iweb.sudoku;
+
+public class ConstraintPropagator {
+    private final Grid grid;
+    // Null when only the values of the grid's units narrow the candidates
+    private final GridCandidates candidates;
+    private final int cellCount;
+    private final int allCandidates;
+    private final int[][] units;
+
+    // Cells valued by propagation, in placement order, so they can be undone
+    private final int[] trail;
+    private int trailSize = 0;
+    private int placementCount = 0;
+
+    public ConstraintPropagator(final Grid grid) {
+        this(grid, null);
+    }
+
+    // Propagates over candidates narrowed by deduction techniques
+    public ConstraintPropagator(final GridCandidates candidates) {
+        this(candidates.getGrid(), candidates);
+    }
+
+    private ConstraintPropagator(final Grid grid, final GridCandidates candidates) {
+        this.grid = grid;
+        this.candidates = candidates;
+        final GridLayout layout = grid.getLayout();
+        cellCount = layout.cellCount;
+        allCandidates = layout.allCandidates;
+        units = layout.units;
+        trail = new int[cellCount];
+    }
+
+    public int mark() {
+        return trailSize;
+    }
+
+    public void undo(final int mark) {
+        while (trailSize > mark) {
+            grid.clearCell(trail[--trailSize]);
+        }
+    }
+
+    public void reset() {
+        trailSize = 0;
+        placementCount = 0;
+    }
+
+    public int getPlacementCount() {
+        return placementCount;
+    }
+
+    // Places naked and hidden singles until none is left.
+    // Returns false as soon as the grid can't be completed anymore.
+    public boolean propagate() {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+                if (grid.cellHasValue(cellIndex)) {
+                    continue; // with next cell
+                }
+                final int candidates = candidateMaskFor(cellIndex);
+                if (candidates == 0) {
+                    return false;
+                }
+                if ((candidates & (candidates - 1)) == 0) {
+                    place(cellIndex, Grid.valueOf(candidates));
+                    progress = true;
+                }
+            }
+
+            for (final int[] unit : units) {
+                int placed = 0;
+                int seenOnce = 0;
+                int seenTwice = 0;
+                for (final int cellIndex : unit) {
+                    if (grid.cellHasValue(cellIndex)) {
+                        placed |= Grid.bitFor(grid.getCellValue(cellIndex));
+                    } else {
+                        final int candidates = candidateMaskFor(cellIndex);
+                        seenTwice |= seenOnce & candidates;
+                        seenOnce |= candidates;
+                    }
+                }
+                if ((placed | seenOnce) != allCandidates) {
+                    return false; // a value has no place left in this unit
+                }
+
+                int hiddenSingles = seenOnce & ~seenTwice & ~placed;
+                while (hiddenSingles != 0) {
+                    final int bit = hiddenSingles & -hiddenSingles;
+                    hiddenSingles ^= bit;
+                    if (!placeHiddenSingle(unit, bit)) {
+                        return false;
+                    }
+                    progress = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean placeHiddenSingle(final int[] unit, final int bit) {
+        for (final int cellIndex : unit) {
+            if (!grid.cellHasValue(cellIndex) && (candidateMaskFor(cellIndex) & bit) != 0) {
+                place(cellIndex, Grid.valueOf(bit));
+                return true;
+            }
+        }
+        return false; // its only cell got another hidden single of the same unit
+    }
+
+    private int candidateMaskFor(final int cellIndex) {
+        return candidates == null ? grid.getCandidateMaskFor(cellIndex) : candidates.getMaskFor(cellIndex);
+    }
+
+    private void place(final int cellIndex, final int value) {
+        grid.setCell(cellIndex, value);
+        trail[trailSize++] = cellIndex;
+        placementCount++;
+    }
+}
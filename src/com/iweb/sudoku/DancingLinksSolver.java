@@ -0,0 +1,200 @@
+package com.iweb.sudoku;
+
+// Solves a grid as an exact cover problem with Knuth's Dancing Links (Algorithm X).
+// Each matrix row places one value in one cell, each matrix column is one constraint:
+// a cell has a value, a row has a value, a column has a value or a sub grid has a value.
+public class DancingLinksSolver implements GridSolver {
+    private static final int SIZE = Grid.SIZE;
+    private static final int CONSTRAINT_COUNT = 4 * Grid.CELL_COUNT;
+    private static final int CHOICE_COUNT = Grid.CELL_COUNT * SIZE;
+    private static final int ROOT = 0;
+    private static final int FIRST_CHOICE_NODE = CONSTRAINT_COUNT + 1;
+    private static final int NODE_COUNT = FIRST_CHOICE_NODE + 4 * CHOICE_COUNT;
+
+    // Fully linked matrix, copied at the start of every solve
+    private static final int[] TEMPLATE_LEFT = new int[NODE_COUNT];
+    private static final int[] TEMPLATE_RIGHT = new int[NODE_COUNT];
+    private static final int[] TEMPLATE_UP = new int[NODE_COUNT];
+    private static final int[] TEMPLATE_DOWN = new int[NODE_COUNT];
+    private static final int[] TEMPLATE_SIZE = new int[CONSTRAINT_COUNT + 1];
+    private static final int[] COLUMN_OF = new int[NODE_COUNT];
+    private static final int[] CHOICE_OF = new int[NODE_COUNT];
+
+    static {
+        for (int header = ROOT; header <= CONSTRAINT_COUNT; ++header) {
+            TEMPLATE_LEFT[header] = header == ROOT ? CONSTRAINT_COUNT : header - 1;
+            TEMPLATE_RIGHT[header] = header == CONSTRAINT_COUNT ? ROOT : header + 1;
+            TEMPLATE_UP[header] = header;
+            TEMPLATE_DOWN[header] = header;
+            COLUMN_OF[header] = header;
+        }
+
+        for (int choice = 0; choice < CHOICE_COUNT; ++choice) {
+            final int cellIndex = choice / SIZE;
+            final int digit = choice % SIZE;
+            final int row = cellIndex / SIZE;
+            final int col = cellIndex % SIZE;
+            final int subGrid = (row / 3) * 3 + col / 3;
+            final int[] headers = {
+                    1 + cellIndex,
+                    1 + Grid.CELL_COUNT + row * SIZE + digit,
+                    1 + 2 * Grid.CELL_COUNT + col * SIZE + digit,
+                    1 + 3 * Grid.CELL_COUNT + subGrid * SIZE + digit
+            };
+
+            final int first = FIRST_CHOICE_NODE + 4 * choice;
+            for (int i = 0; i < 4; ++i) {
+                final int node = first + i;
+                final int header = headers[i];
+                TEMPLATE_LEFT[node] = first + (i + 3) % 4;
+                TEMPLATE_RIGHT[node] = first + (i + 1) % 4;
+                TEMPLATE_UP[node] = TEMPLATE_UP[header];
+                TEMPLATE_DOWN[node] = header;
+                TEMPLATE_DOWN[TEMPLATE_UP[header]] = node;
+                TEMPLATE_UP[header] = node;
+                TEMPLATE_SIZE[header]++;
+                COLUMN_OF[node] = header;
+                CHOICE_OF[node] = choice;
+            }
+        }
+    }
+
+    private final Grid grid;
+
+    private final int[] left = new int[NODE_COUNT];
+    private final int[] right = new int[NODE_COUNT];
+    private final int[] up = new int[NODE_COUNT];
+    private final int[] down = new int[NODE_COUNT];
+    private final int[] size = new int[CONSTRAINT_COUNT + 1];
+    private final int[] solution = new int[Grid.CELL_COUNT];
+
+    private SolveStatistics statistics = new SolveStatistics();
+
+    public DancingLinksSolver(final Grid grid) {
+        if (grid.getSize() != SIZE) {
+            throw new IllegalArgumentException("Only 9x9 grids are solved with dancing links, got " + grid.getLayout());
+        }
+        this.grid = grid;
+    }
+
+    public boolean solve() {
+        final long start = System.nanoTime();
+        statistics = new SolveStatistics();
+        final boolean success = internalSolve();
+        statistics.outcome = success ? SolveOutcome.SOLVED : SolveOutcome.UNSOLVABLE;
+        statistics.elapsedNanos = System.nanoTime() - start;
+        return success;
+    }
+
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    private boolean internalSolve() {
+        System.arraycopy(TEMPLATE_LEFT, 0, left, 0, NODE_COUNT);
+        System.arraycopy(TEMPLATE_RIGHT, 0, right, 0, NODE_COUNT);
+        System.arraycopy(TEMPLATE_UP, 0, up, 0, NODE_COUNT);
+        System.arraycopy(TEMPLATE_DOWN, 0, down, 0, NODE_COUNT);
+        System.arraycopy(TEMPLATE_SIZE, 0, size, 0, CONSTRAINT_COUNT + 1);
+
+        if (!coverGivens()) {
+            return false;
+        }
+        final int depth = search(0);
+        if (depth < 0) {
+            return false;
+        }
+
+        for (int i = 0; i < depth; ++i) {
+            final int choice = solution[i];
+            grid.setCell(choice / SIZE, choice % SIZE + 1);
+        }
+        return true;
+    }
+
+    private boolean coverGivens() {
+        final boolean[] covered = new boolean[CONSTRAINT_COUNT + 1];
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            final int value = grid.getCellValue(cellIndex);
+            if (value == Grid.EMPTY) {
+                continue; // with next cell
+            }
+
+            final int first = FIRST_CHOICE_NODE + 4 * (cellIndex * SIZE + value - 1);
+            for (int node = first; node < first + 4; ++node) {
+                final int header = COLUMN_OF[node];
+                if (covered[header]) {
+                    return false; // same value twice in a row, column or sub grid
+                }
+                covered[header] = true;
+                cover(header);
+            }
+        }
+        return true;
+    }
+
+    // Returns the number of choices in the solution, or -1 if there is none
+    private int search(final int depth) {
+        if (right[ROOT] == ROOT) {
+            return depth;
+        }
+
+        int column = right[ROOT];
+        for (int header = right[column]; header != ROOT; header = right[header]) {
+            if (size[header] < size[column]) {
+                column = header;
+            }
+        }
+        if (size[column] == 0) {
+            return -1;
+        }
+
+        cover(column);
+        for (int node = down[column]; node != column; node = down[node]) {
+            statistics.tries++;
+            if (depth + 1 > statistics.maxDepth) {
+                statistics.maxDepth = depth + 1;
+            }
+            solution[depth] = CHOICE_OF[node];
+            for (int other = right[node]; other != node; other = right[other]) {
+                cover(COLUMN_OF[other]);
+            }
+
+            final int solutionDepth = search(depth + 1);
+            if (solutionDepth >= 0) {
+                return solutionDepth;
+            }
+
+            statistics.backtracks++;
+            for (int other = left[node]; other != node; other = left[other]) {
+                uncover(COLUMN_OF[other]);
+            }
+        }
+        uncover(column);
+        return -1;
+    }
+
+    private void cover(final int column) {
+        right[left[column]] = right[column];
+        left[right[column]] = left[column];
+        for (int node = down[column]; node != column; node = down[node]) {
+            for (int other = right[node]; other != node; other = right[other]) {
+                down[up[other]] = down[other];
+                up[down[other]] = up[other];
+                size[COLUMN_OF[other]]--;
+            }
+        }
+    }
+
+    private void uncover(final int column) {
+        for (int node = up[column]; node != column; node = up[node]) {
+            for (int other = left[node]; other != node; other = left[other]) {
+                size[COLUMN_OF[other]]++;
+                down[up[other]] = other;
+                up[down[other]] = other;
+            }
+        }
+        right[left[column]] = column;
+        left[right[column]] = column;
+    }
+}
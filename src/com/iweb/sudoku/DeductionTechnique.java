@@ -0,0 +1,51 @@
+package com.iweb.sudoku;
+
+// A logical rule run by a TechniquePipeline over the candidates of a grid. Techniques only
+// rule candidates out with GridCandidates.exclude, placing the values that end up forced is
+// left to the pipeline's propagation. They hold no state, so one can serve any number of grids.
+public abstract class DeductionTechnique {
+    private final String name;
+
+    protected DeductionTechnique(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Returns true when at least one candidate was ruled out
+    public abstract boolean apply(GridCandidates candidates);
+
+    // Candidates of every cell, none for a cell with a value. Read once per pass: after an
+    // exclusion they may hold more candidates than the grid, which can hide a deduction until
+    // the next pass but never makes up a wrong one.
+    static int[] readCandidates(final GridCandidates candidates) {
+        final Grid grid = candidates.getGrid();
+        final int[] masks = new int[grid.getCellCount()];
+        for (int cellIndex = 0; cellIndex < masks.length; ++cellIndex) {
+            if (!grid.cellHasValue(cellIndex)) {
+                masks[cellIndex] = candidates.getMaskFor(cellIndex);
+            }
+        }
+        return masks;
+    }
+
+    // Rules the values out of the empty cells of the unit whose positions aren't in the kept mask
+    static boolean excludeFromUnit(final GridCandidates candidates, final int[] unit, final int keptPositions,
+                                   final int mask) {
+        final Grid grid = candidates.getGrid();
+        boolean progress = false;
+        for (int position = 0; position < unit.length; ++position) {
+            final int cellIndex = unit[position];
+            if ((keptPositions & (1 << position)) == 0 && !grid.cellHasValue(cellIndex)) {
+                progress |= candidates.exclude(cellIndex, mask);
+            }
+        }
+        return progress;
+    }
+
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,29 @@
+package com.iweb.sudoku;
+
+// Grade of a puzzle, from the effort of proving its solution unique with
+// propagation of singles and guesses on the cell with the fewest candidates
+public enum Difficulty {
+    // Singles alone fill the grid
+    EASY,
+    // A few guesses, at most 2 deep
+    MEDIUM,
+    // Up to 32 guesses, at most 4 deep
+    HARD,
+    // Anything more
+    EXPERT;
+
+    public static Difficulty of(final SolveStatistics statistics) {
+        final long tries = statistics.getTries();
+        final int depth = statistics.getMaxDepth();
+        if (tries == 0) {
+            return EASY;
+        }
+        if (tries <= 8 && depth <= 2) {
+            return MEDIUM;
+        }
+        if (tries <= 32 && depth <= 4) {
+            return HARD;
+        }
+        return EXPERT;
+    }
+}
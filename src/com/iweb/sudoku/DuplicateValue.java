@@ -0,0 +1,54 @@
+package com.iweb.sudoku;
+
+// A value found more than once in the same row, column or sub grid.
+// Instances of 9x9 grids are shared, so reporting a duplicate there doesn't allocate.
+public class DuplicateValue {
+    public enum UnitType {
+        ROW, COLUMN, SUB_GRID
+    }
+
+    private static final DuplicateValue[][][] INSTANCES = new DuplicateValue[UnitType.values().length][Grid.SIZE][Grid.SIZE];
+
+    static {
+        for (final UnitType unitType : UnitType.values()) {
+            for (int unitIndex = 0; unitIndex < Grid.SIZE; ++unitIndex) {
+                for (int value = 1; value <= Grid.SIZE; ++value) {
+                    INSTANCES[unitType.ordinal()][unitIndex][value - 1] = new DuplicateValue(unitType, unitIndex, value);
+                }
+            }
+        }
+    }
+
+    private final UnitType unitType;
+    private final int unitIndex;
+    private final int value;
+
+    private DuplicateValue(final UnitType unitType, final int unitIndex, final int value) {
+        this.unitType = unitType;
+        this.unitIndex = unitIndex;
+        this.value = value;
+    }
+
+    public static DuplicateValue of(final UnitType unitType, final int unitIndex, final int value) {
+        if (unitIndex >= Grid.SIZE || value > Grid.SIZE) {
+            return new DuplicateValue(unitType, unitIndex, value);
+        }
+        return INSTANCES[unitType.ordinal()][unitIndex][value - 1];
+    }
+
+    public UnitType getUnitType() {
+        return unitType;
+    }
+
+    public int getUnitIndex() {
+        return unitIndex;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public String toString() {
+        return "Value " + value + " is found more than once in " + unitType.name().toLowerCase().replace('_', ' ') + " " + unitIndex;
+    }
+}
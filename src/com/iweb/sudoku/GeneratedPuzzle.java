@@ -0,0 +1,41 @@
+package com.iweb.sudoku;
+
+public class GeneratedPuzzle {
+    private final Grid puzzle;
+    private final Grid solution;
+    private final Difficulty difficulty;
+    private final int clueCount;
+
+    GeneratedPuzzle(final Grid puzzle, final Grid solution, final Difficulty difficulty) {
+        this.puzzle = puzzle;
+        this.solution = solution;
+        this.difficulty = difficulty;
+        int clues = 0;
+        for (int cellIndex = 0; cellIndex < puzzle.getCellCount(); ++cellIndex) {
+            if (puzzle.cellHasValue(cellIndex)) {
+                clues++;
+            }
+        }
+        clueCount = clues;
+    }
+
+    public Grid getPuzzle() {
+        return puzzle;
+    }
+
+    public Grid getSolution() {
+        return solution;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getClueCount() {
+        return clueCount;
+    }
+
+    public String toString() {
+        return puzzle.toCompactString() + " " + difficulty + " " + clueCount + " clues";
+    }
+}
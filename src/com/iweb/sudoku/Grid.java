@@ -1,120 +1,212 @@
 package com.iweb.sudoku;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+// Values of a sudoku grid, 9x9 unless built with another box size (see GridLayout).
+// The static constants and cell helpers describe the classic 9x9 layout.
 public class Grid {
     public static final int SIZE = 9;
 
-    private final Integer[][] cells = new Integer[SIZE][SIZE];
-    
-    public boolean cellHasValue(final int cellIndex) {
-        final int row = cellIndex / SIZE;
-        final int col = cellIndex % SIZE;
-        return cells[row][col] != null;
+    public static final int CELL_COUNT = SIZE * SIZE;
+    public static final int EMPTY = 0;
+
+    public static final int ALL_CANDIDATES = (1 << SIZE) - 1;
+
+    private static final GridLayout CLASSIC = GridLayout.of(3);
+
+    // Cell indexes of every row, then every column, then every sub grid
+    static final int[][] UNITS = CLASSIC.units;
+
+    private final GridLayout layout;
+
+    // Row-major values, EMPTY for a cell without value
+    private final byte[] cells;
+
+    // One bit per value (bit 0 for 1, bit 8 for 9) already used in each row, column and sub grid
+    private final int[] rowMasks;
+    private final int[] columnMasks;
+    private final int[] subGridMasks;
+
+    public Grid() {
+        this(CLASSIC);
     }
-    
-    private static List<Integer> createFullCandidateList() {
-        // Arrays.asList is fixed size, need to copy it
-        final List<Integer> candidates = new ArrayList<Integer>(15);
-        candidates.addAll(Arrays.asList(1, 2, 3, 5, 4, 6, 7, 8, 9));
-        return candidates;
+
+    public Grid(final int boxSize) {
+        this(GridLayout.of(boxSize));
     }
 
-    public List<Integer> getCandidatesFor(final int cellIndex) {
-        final int row = cellIndex / SIZE;
-        final int col = cellIndex % SIZE;
+    public Grid(final GridLayout layout) {
+        this.layout = layout;
+        cells = new byte[layout.cellCount];
+        rowMasks = new int[layout.size];
+        columnMasks = new int[layout.size];
+        subGridMasks = new int[layout.size];
+    }
 
-        final List<Integer> candidates = createFullCandidateList();
+    public Grid copy() {
+        final Grid copy = new Grid(layout);
+        copy.copyFrom(this);
+        return copy;
+    }
 
-        removeSameRowValuesFromCandidates(candidates, row);
-        removeSameColumnValuesFromCandidates(candidates, col);
-        removeSameSubGridCandidatesFromCandidates(row, col, candidates);
+    // Makes this grid hold the same values as the source, which must have the same layout
+    public void copyFrom(final Grid source) {
+        checkLayout(source.layout);
+        copyState(source.cells, source.rowMasks, source.columnMasks, source.subGridMasks,
+                cells, rowMasks, columnMasks, subGridMasks);
+    }
 
-        return candidates;
+    public GridSnapshot snapshot() {
+        return snapshot(new GridSnapshot(layout));
     }
 
-    private void removeSameSubGridCandidatesFromCandidates(final int row, final int col, final List<Integer> candidates) {
-        final int startRow = row - (row % 3);
-        final int startColumn = col - (col % 3);
-        final int endRow = startRow + 3;
-        final int endColumn = startColumn + 3;
+    // Overwrites the given snapshot, so a search can keep reusing the same ones
+    public GridSnapshot snapshot(final GridSnapshot target) {
+        checkLayout(target.getLayout());
+        copyState(cells, rowMasks, columnMasks, subGridMasks,
+                target.cells, target.rowMasks, target.columnMasks, target.subGridMasks);
+        return target;
+    }
 
-        for (int i = startRow; i < endRow; ++i) {
-            for (int j = startColumn; j < endColumn; ++j) {
-                final Integer value = cells[i][j];
-                if (value != null) {
-                    candidates.remove(value);
-                }
-            }
-        }
+    // Puts back the values the grid had when the snapshot was taken
+    public void restore(final GridSnapshot snapshot) {
+        checkLayout(snapshot.getLayout());
+        copyState(snapshot.cells, snapshot.rowMasks, snapshot.columnMasks, snapshot.subGridMasks,
+                cells, rowMasks, columnMasks, subGridMasks);
     }
 
-    private void removeSameColumnValuesFromCandidates(final List<Integer> candidates, final int col) {
-        for (int row = 0; row < SIZE; ++row) {
-            final Integer value = cells[row][col];
-            if (value != null) {
-                candidates.remove(value);
-            }
+    private void checkLayout(final GridLayout other) {
+        if (other != layout) {
+            throw new IllegalArgumentException("Expected a " + layout + " grid, got " + other);
         }
     }
 
-    private void removeSameRowValuesFromCandidates(final List<Integer> candidates, final int row) {
-        for (final Integer sameRowCell : cells[row]) {
-            if (sameRowCell != null) {
-                candidates.remove(sameRowCell);
+    private static void copyState(final byte[] sourceCells, final int[] sourceRowMasks,
+                                  final int[] sourceColumnMasks, final int[] sourceSubGridMasks,
+                                  final byte[] targetCells, final int[] targetRowMasks,
+                                  final int[] targetColumnMasks, final int[] targetSubGridMasks) {
+        System.arraycopy(sourceCells, 0, targetCells, 0, sourceCells.length);
+        System.arraycopy(sourceRowMasks, 0, targetRowMasks, 0, sourceRowMasks.length);
+        System.arraycopy(sourceColumnMasks, 0, targetColumnMasks, 0, sourceColumnMasks.length);
+        System.arraycopy(sourceSubGridMasks, 0, targetSubGridMasks, 0, sourceSubGridMasks.length);
+    }
+
+    public GridLayout getLayout() {
+        return layout;
+    }
+
+    public int getSize() {
+        return layout.size;
+    }
+
+    public int getCellCount() {
+        return layout.cellCount;
+    }
+
+    public boolean cellHasValue(final int cellIndex) {
+        return cells[cellIndex] != EMPTY;
+    }
+
+    public List<Integer> getCandidatesFor(final int cellIndex) {
+        final int mask = getCandidateMaskFor(cellIndex);
+        final List<Integer> candidates = new ArrayList<Integer>(Integer.bitCount(mask));
+        for (int value = 1; value <= layout.size; ++value) {
+            if ((mask & bitFor(value)) != 0) {
+                candidates.add(value);
             }
         }
+        return candidates;
+    }
+
+    public int getCandidateMaskFor(final int cellIndex) {
+        final GridLayout layout = this.layout;
+        final int used = rowMasks[layout.rowOf[cellIndex]] | columnMasks[layout.columnOf[cellIndex]]
+                | subGridMasks[layout.subGridOf[cellIndex]];
+        return ~used & layout.allCandidates;
+    }
+
+    public static int rowOf(final int cellIndex) {
+        return CLASSIC.rowOf[cellIndex];
+    }
+
+    public static int columnOf(final int cellIndex) {
+        return CLASSIC.columnOf[cellIndex];
+    }
+
+    public static int subGridOf(final int cellIndex) {
+        return CLASSIC.subGridOf[cellIndex];
+    }
+
+    public static int bitFor(final int value) {
+        return 1 << (value - 1);
+    }
+
+    public static int valueOf(final int bit) {
+        return Integer.numberOfTrailingZeros(bit) + 1;
     }
 
     public void setCell(final int cellIndex, final Integer value) {
-        final int row = cellIndex / SIZE;
-        final int col = cellIndex % SIZE;
-        cells[row][col] = value;
+        setCell(cellIndex, value == null ? EMPTY : value.intValue());
+    }
+
+    public void setCell(final int cellIndex, final int value) {
+        final int row = layout.rowOf[cellIndex];
+        final int col = layout.columnOf[cellIndex];
+        final int subGrid = layout.subGridOf[cellIndex];
+
+        final int previous = cells[cellIndex];
+        if (previous != EMPTY) {
+            final int clearMask = ~bitFor(previous);
+            rowMasks[row] &= clearMask;
+            columnMasks[col] &= clearMask;
+            subGridMasks[subGrid] &= clearMask;
+        }
+        if (value != EMPTY) {
+            final int setMask = bitFor(value);
+            rowMasks[row] |= setMask;
+            columnMasks[col] |= setMask;
+            subGridMasks[subGrid] |= setMask;
+        }
+        cells[cellIndex] = (byte) value;
     }
 
     public void clearCell(final int cellIndex) {
-        setCell(cellIndex, null);
+        setCell(cellIndex, EMPTY);
     }
 
-    public void loadGridFromString(final String dirtyGrid) {
-        final String cleanGrid = dirtyGrid.replaceAll("[^\\.1-9]","");
-        if (cleanGrid.length() != 81) return; // Ignoring invalid grids
+    // Empties every cell. Loading values over a filled grid must start here: the masks have
+    // one bit per value, so overwriting a value that is still present elsewhere in a unit
+    // would clear the bit of that other cell.
+    public void clear() {
+        Arrays.fill(cells, (byte) EMPTY);
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(columnMasks, 0);
+        Arrays.fill(subGridMasks, 0);
+    }
 
-        for (int i = 0; i < cleanGrid.length(); ++i) {
-            final String value = String.valueOf(cleanGrid.charAt(i));
-            setCell(i, value.equals(".") ? null : Integer.parseInt(value));
-        }
+    // Returns false, leaving the grid untouched, when the string doesn't hold exactly one value per cell.
+    // See GridParser for the accepted formats.
+    public boolean loadGridFromString(final String dirtyGrid) {
+        return GridParser.parse(dirtyGrid, this).isValid();
     }
     
     public String toString() {
-        final StringBuilder buf = new StringBuilder(100);
-
-        int rowIndex = 0;
-        for (final Integer[] row : cells) {
-            if (rowIndex % 3 == 0) {
-                buf.append("+---+---+---+\n");
-            }
-            buf.append(MessageFormat.format("|{0}{1}{2}|{3}{4}{5}|{6}{7}{8}|\n", transformNullToPoints(row)));
-            rowIndex++;
-        }
-        buf.append("+---+---+---+");
-        return buf.toString();
+        return GridRenderer.appendBox(this, new StringBuilder(GridRenderer.boxLengthOf(layout))).toString();
     }
 
-    private static String[] transformNullToPoints(final Integer[] row) {
-        final String[] values = new String[row.length];
-        for (int i = 0; i < row.length; ++i) {
-            values[i] = row[i] == null ? "." : Integer.toString(row[i]);
-        }
-        return values;
+    // Every cell on one line, '.' for an empty cell
+    public String toCompactString() {
+        return GridRenderer.appendCompact(this, new StringBuilder(layout.cellCount)).toString();
     }
 
     public Integer getCell(final int cellIndex) {
-        final int row = cellIndex / SIZE;
-        final int col = cellIndex % SIZE;
-        return cells[row][col];
+        final int value = cells[cellIndex];
+        return value == EMPTY ? null : Integer.valueOf(value);
+    }
+
+    public int getCellValue(final int cellIndex) {
+        return cells[cellIndex];
     }
 }
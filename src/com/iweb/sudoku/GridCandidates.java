@@ -0,0 +1,42 @@
+package com.iweb.sudoku;
+
+import java.util.Arrays;
+
+// Candidates of the cells of a grid, narrowed by deduction techniques beyond what the values
+// of the grid's units allow. The grid itself is never changed. Exclusions only hold for the
+// values the grid had when they were made, so they must be reset once a value is removed:
+// the Solver resets its own at the start of every search.
+public class GridCandidates {
+    private final Grid grid;
+    private final int allCandidates;
+
+    // Per cell, the values techniques haven't ruled out
+    private final int[] allowed;
+
+    public GridCandidates(final Grid grid) {
+        this.grid = grid;
+        allCandidates = grid.getLayout().allCandidates;
+        allowed = new int[grid.getCellCount()];
+        reset();
+    }
+
+    public Grid getGrid() {
+        return grid;
+    }
+
+    public int getMaskFor(final int cellIndex) {
+        return grid.getCandidateMaskFor(cellIndex) & allowed[cellIndex];
+    }
+
+    // Rules values out of a cell, returns true if any of them was still a candidate
+    public boolean exclude(final int cellIndex, final int mask) {
+        final boolean changed = (getMaskFor(cellIndex) & mask) != 0;
+        allowed[cellIndex] &= ~mask;
+        return changed;
+    }
+
+    // Drops every exclusion
+    public void reset() {
+        Arrays.fill(allowed, allCandidates);
+    }
+}
@@ -0,0 +1,93 @@
+package com.iweb.sudoku;
+
+// Shape of a grid made of boxSize x boxSize sub grids: SIZE = boxSize² values per unit.
+// Candidate sets are int masks, one bit per value, so box sizes go from 2 (4x4) to 5 (25x25).
+// Layouts are shared, one instance per box size.
+public class GridLayout {
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 5;
+
+    private static final GridLayout[] LAYOUTS = new GridLayout[MAX_BOX_SIZE + 1];
+
+    static {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; ++boxSize) {
+            LAYOUTS[boxSize] = new GridLayout(boxSize);
+        }
+    }
+
+    final int boxSize;
+    final int size;
+    final int cellCount;
+    final int allCandidates;
+
+    final int[] rowOf;
+    final int[] columnOf;
+    final int[] subGridOf;
+
+    // Cell indexes of every row, then every column, then every sub grid
+    final int[][] units;
+
+    private GridLayout(final int boxSize) {
+        this.boxSize = boxSize;
+        size = boxSize * boxSize;
+        cellCount = size * size;
+        allCandidates = (1 << size) - 1;
+        rowOf = new int[cellCount];
+        columnOf = new int[cellCount];
+        subGridOf = new int[cellCount];
+        units = new int[3 * size][size];
+
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            final int row = cellIndex / size;
+            final int col = cellIndex % size;
+            final int subGrid = (row / boxSize) * boxSize + col / boxSize;
+            rowOf[cellIndex] = row;
+            columnOf[cellIndex] = col;
+            subGridOf[cellIndex] = subGrid;
+
+            units[row][col] = cellIndex;
+            units[size + col][row] = cellIndex;
+            units[2 * size + subGrid][(row % boxSize) * boxSize + col % boxSize] = cellIndex;
+        }
+    }
+
+    public static GridLayout of(final int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size must be between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE
+                    + ", got " + boxSize);
+        }
+        return LAYOUTS[boxSize];
+    }
+
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getAllCandidates() {
+        return allCandidates;
+    }
+
+    public int rowOf(final int cellIndex) {
+        return rowOf[cellIndex];
+    }
+
+    public int columnOf(final int cellIndex) {
+        return columnOf[cellIndex];
+    }
+
+    public int subGridOf(final int cellIndex) {
+        return subGridOf[cellIndex];
+    }
+
+    public String toString() {
+        return size + "x" + size;
+    }
+}
@@ -0,0 +1,175 @@
+package com.iweb.sudoku;
+
+import java.nio.ByteBuffer;
+
+// Reads a grid from text, straight from the characters or bytes given.
+// '1' to '9' are values, '.' and '0' are empty cells, any other character is ignored,
+// so both the compact format of one character per cell and the boxed format of Grid.toString are read.
+// On grids larger than 9x9, letters from 'A' (or 'a') stand for the values from 10.
+// The target grid is only written when exactly one character per cell is found.
+public class GridParser {
+    private static final int IGNORED = -1;
+
+    // Cell value of each ASCII character, IGNORED when it isn't a cell
+    private static final byte[] CELL_VALUES = new byte[128];
+
+    static {
+        for (int ch = 0; ch < CELL_VALUES.length; ++ch) {
+            CELL_VALUES[ch] = IGNORED;
+        }
+        CELL_VALUES['.'] = Grid.EMPTY;
+        CELL_VALUES['0'] = Grid.EMPTY;
+        for (int value = 1; value <= 9; ++value) {
+            CELL_VALUES['0' + value] = (byte) value;
+        }
+        for (int letter = 0; letter < 26; ++letter) {
+            CELL_VALUES['A' + letter] = (byte) (10 + letter);
+            CELL_VALUES['a' + letter] = (byte) (10 + letter);
+        }
+    }
+
+    private GridParser() {
+    }
+
+    // Values above the size of the grid aren't cells
+    private static int cellValueOf(final int ch, final int size) {
+        final int value = ch < CELL_VALUES.length ? CELL_VALUES[ch] : IGNORED;
+        return value > size ? IGNORED : value;
+    }
+
+    // Number of cell characters in the bytes
+    static int countCells(final ByteBuffer buffer, final int offset, final int length, final int size) {
+        final int end = offset + length;
+        int cellCount = 0;
+        for (int i = offset; i < end; ++i) {
+            if (cellValueOf(buffer.get(i) & 0xFF, size) != IGNORED) {
+                cellCount++;
+            }
+        }
+        return cellCount;
+    }
+
+    public static ParseResult parse(final CharSequence text, final Grid target) {
+        final int length = text.length();
+        final int size = target.getSize();
+        int cellCount = 0;
+        for (int i = 0; i < length; ++i) {
+            if (cellValueOf(text.charAt(i), size) != IGNORED) {
+                cellCount++;
+            }
+        }
+        if (cellCount != target.getCellCount()) {
+            return ParseResult.invalidCellCount(target.getCellCount(), cellCount);
+        }
+
+        target.clear();
+        int cellIndex = 0;
+        for (int i = 0; i < length; ++i) {
+            final int value = cellValueOf(text.charAt(i), size);
+            if (value != IGNORED) {
+                target.setCell(cellIndex++, value);
+            }
+        }
+        return ParseResult.valid(cellCount);
+    }
+
+    public static ParseResult parse(final byte[] bytes, final int offset, final int length, final Grid target) {
+        final int end = offset + length;
+        final int size = target.getSize();
+        int cellCount = 0;
+        for (int i = offset; i < end; ++i) {
+            if (cellValueOf(bytes[i] & 0xFF, size) != IGNORED) {
+                cellCount++;
+            }
+        }
+        if (cellCount != target.getCellCount()) {
+            return ParseResult.invalidCellCount(target.getCellCount(), cellCount);
+        }
+
+        target.clear();
+        int cellIndex = 0;
+        for (int i = offset; i < end; ++i) {
+            final int value = cellValueOf(bytes[i] & 0xFF, size);
+            if (value != IGNORED) {
+                target.setCell(cellIndex++, value);
+            }
+        }
+        return ParseResult.valid(cellCount);
+    }
+
+    // Reads a 9x9 grid into Grid.CELL_COUNT values of the cells array from cellOffset, Grid.EMPTY
+    // for an empty cell, which saves a Grid per puzzle to callers keeping many of them
+    public static ParseResult parse(final CharSequence text, final byte[] cells, final int cellOffset) {
+        final int length = text.length();
+        int cellCount = 0;
+        for (int i = 0; i < length; ++i) {
+            if (cellValueOf(text.charAt(i), Grid.SIZE) != IGNORED) {
+                cellCount++;
+            }
+        }
+        if (cellCount != Grid.CELL_COUNT) {
+            return ParseResult.invalidCellCount(Grid.CELL_COUNT, cellCount);
+        }
+
+        int cellIndex = cellOffset;
+        for (int i = 0; i < length; ++i) {
+            final int value = cellValueOf(text.charAt(i), Grid.SIZE);
+            if (value != IGNORED) {
+                cells[cellIndex++] = (byte) value;
+            }
+        }
+        return ParseResult.valid(cellCount);
+    }
+
+    // Reads the bytes between the buffer position and its limit, without moving its position
+    public static ParseResult parse(final ByteBuffer buffer, final Grid target) {
+        return parse(buffer, buffer.position(), buffer.remaining(), target);
+    }
+
+    public static ParseResult parse(final ByteBuffer buffer, final int offset, final int length, final Grid target) {
+        final int end = offset + length;
+        final int size = target.getSize();
+        int cellCount = 0;
+        for (int i = offset; i < end; ++i) {
+            if (cellValueOf(buffer.get(i) & 0xFF, size) != IGNORED) {
+                cellCount++;
+            }
+        }
+        if (cellCount != target.getCellCount()) {
+            return ParseResult.invalidCellCount(target.getCellCount(), cellCount);
+        }
+
+        target.clear();
+        int cellIndex = 0;
+        for (int i = offset; i < end; ++i) {
+            final int value = cellValueOf(buffer.get(i) & 0xFF, size);
+            if (value != IGNORED) {
+                target.setCell(cellIndex++, value);
+            }
+        }
+        return ParseResult.valid(cellCount);
+    }
+
+    public static ParseResult parse(final ByteBuffer buffer, final int offset, final int length,
+                                    final byte[] cells, final int cellOffset) {
+        final int end = offset + length;
+        int cellCount = 0;
+        for (int i = offset; i < end; ++i) {
+            if (cellValueOf(buffer.get(i) & 0xFF, Grid.SIZE) != IGNORED) {
+                cellCount++;
+            }
+        }
+        if (cellCount != Grid.CELL_COUNT) {
+            return ParseResult.invalidCellCount(Grid.CELL_COUNT, cellCount);
+        }
+
+        int cellIndex = cellOffset;
+        for (int i = offset; i < end; ++i) {
+            final int value = cellValueOf(buffer.get(i) & 0xFF, Grid.SIZE);
+            if (value != IGNORED) {
+                cells[cellIndex++] = (byte) value;
+            }
+        }
+        return ParseResult.valid(cellCount);
+    }
+}
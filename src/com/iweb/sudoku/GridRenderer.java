@@ -0,0 +1,171 @@
+package com.iweb.sudoku;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Writes a grid as text straight into the caller's buffer, in the boxed format of
+// Grid.toString or the compact format of one character per cell, '.' for an empty cell
+// and letters from 'A' for the values above 9.
+// The boxed format is a fixed template per layout where only the cell positions change.
+public class GridRenderer {
+    // Lengths of a 9x9 grid
+    public static final int COMPACT_LENGTH = Grid.CELL_COUNT;
+    public static final int BOX_LENGTH = 13 * 13 + 12;
+
+    // Boxed template of each box size, and the position of each cell in it
+    private static final String[] BOX_TEMPLATES = new String[GridLayout.MAX_BOX_SIZE + 1];
+    private static final int[][] BOX_POSITIONS = new int[GridLayout.MAX_BOX_SIZE + 1][];
+
+    // Character of each cell value
+    private static final char[] CELL_CHARS = new char[GridLayout.MAX_BOX_SIZE * GridLayout.MAX_BOX_SIZE + 1];
+
+    static {
+        CELL_CHARS[Grid.EMPTY] = '.';
+        for (int value = 1; value < CELL_CHARS.length; ++value) {
+            CELL_CHARS[value] = value <= 9 ? (char) ('0' + value) : (char) ('A' + value - 10);
+        }
+
+        for (int boxSize = GridLayout.MIN_BOX_SIZE; boxSize <= GridLayout.MAX_BOX_SIZE; ++boxSize) {
+            final GridLayout layout = GridLayout.of(boxSize);
+            final StringBuilder separator = new StringBuilder("+");
+            for (int box = 0; box < boxSize; ++box) {
+                for (int i = 0; i < boxSize; ++i) {
+                    separator.append('-');
+                }
+                separator.append('+');
+            }
+
+            final StringBuilder template = new StringBuilder();
+            final int[] positions = new int[layout.cellCount];
+            int cellIndex = 0;
+            for (int rowIndex = 0; rowIndex < layout.size; ++rowIndex) {
+                if (rowIndex % boxSize == 0) {
+                    template.append(separator).append('\n');
+                }
+                for (int columnIndex = 0; columnIndex < layout.size; ++columnIndex) {
+                    if (columnIndex % boxSize == 0) {
+                        template.append('|');
+                    }
+                    positions[cellIndex++] = template.length();
+                    template.append('.');
+                }
+                template.append("|\n");
+            }
+            template.append(separator);
+            BOX_TEMPLATES[boxSize] = template.toString();
+            BOX_POSITIONS[boxSize] = positions;
+        }
+    }
+
+    private GridRenderer() {
+    }
+
+    public static int boxLengthOf(final GridLayout layout) {
+        return BOX_TEMPLATES[layout.boxSize].length();
+    }
+
+    public static StringBuilder appendBox(final Grid grid, final StringBuilder target) {
+        final int boxSize = grid.getLayout().boxSize;
+        final int[] positions = BOX_POSITIONS[boxSize];
+        final int start = target.length();
+        target.append(BOX_TEMPLATES[boxSize]);
+        for (int cellIndex = 0; cellIndex < positions.length; ++cellIndex) {
+            target.setCharAt(start + positions[cellIndex], CELL_CHARS[grid.getCellValue(cellIndex)]);
+        }
+        return target;
+    }
+
+    public static StringBuilder appendCompact(final Grid grid, final StringBuilder target) {
+        final int cellCount = grid.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            target.append(CELL_CHARS[grid.getCellValue(cellIndex)]);
+        }
+        return target;
+    }
+
+    // Appends straight to the target, one call per cell. Writers lock on every call,
+    // a Writer is better fed whole lines filled by writeBox or writeCompact.
+    public static void appendBox(final Grid grid, final Appendable target) throws IOException {
+        final int boxSize = grid.getLayout().boxSize;
+        final String template = BOX_TEMPLATES[boxSize];
+        final int[] positions = BOX_POSITIONS[boxSize];
+        int start = 0;
+        for (int cellIndex = 0; cellIndex < positions.length; ++cellIndex) {
+            append(template, start, positions[cellIndex], target);
+            target.append(CELL_CHARS[grid.getCellValue(cellIndex)]);
+            start = positions[cellIndex] + 1;
+        }
+        append(template, start, template.length(), target);
+    }
+
+    public static void appendCompact(final Grid grid, final Appendable target) throws IOException {
+        final int cellCount = grid.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            target.append(CELL_CHARS[grid.getCellValue(cellIndex)]);
+        }
+    }
+
+    // Writer.append would copy the part to a new String first
+    private static void append(final String text, final int start, final int end, final Appendable target)
+            throws IOException {
+        if (target instanceof Writer) {
+            ((Writer) target).write(text, start, end - start);
+        } else {
+            target.append(text, start, end);
+        }
+    }
+
+    // Writes boxLengthOf(layout) chars at the offset, returns the offset after them
+    public static int writeBox(final Grid grid, final char[] target, final int offset) {
+        final int boxSize = grid.getLayout().boxSize;
+        final String template = BOX_TEMPLATES[boxSize];
+        final int[] positions = BOX_POSITIONS[boxSize];
+        template.getChars(0, template.length(), target, offset);
+        for (int cellIndex = 0; cellIndex < positions.length; ++cellIndex) {
+            target[offset + positions[cellIndex]] = CELL_CHARS[grid.getCellValue(cellIndex)];
+        }
+        return offset + template.length();
+    }
+
+    // Writes one char per cell at the offset, returns the offset after them
+    public static int writeCompact(final Grid grid, final char[] target, final int offset) {
+        final int cellCount = grid.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            target[offset + cellIndex] = CELL_CHARS[grid.getCellValue(cellIndex)];
+        }
+        return offset + cellCount;
+    }
+
+    // Writes one char per cell of the 9x9 grid held as Grid.CELL_COUNT values of cells from
+    // cellOffset, returns the offset after them
+    public static int writeCompact(final byte[] cells, final int cellOffset, final char[] target, final int offset) {
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            target[offset + cellIndex] = CELL_CHARS[cells[cellOffset + cellIndex]];
+        }
+        return offset + Grid.CELL_COUNT;
+    }
+
+    // Writes boxLengthOf(layout) ASCII bytes at the offset, returns the offset after them
+    public static int writeBox(final Grid grid, final byte[] target, final int offset) {
+        final int boxSize = grid.getLayout().boxSize;
+        final String template = BOX_TEMPLATES[boxSize];
+        final int[] positions = BOX_POSITIONS[boxSize];
+        final int length = template.length();
+        for (int i = 0; i < length; ++i) {
+            target[offset + i] = (byte) template.charAt(i);
+        }
+        for (int cellIndex = 0; cellIndex < positions.length; ++cellIndex) {
+            target[offset + positions[cellIndex]] = (byte) CELL_CHARS[grid.getCellValue(cellIndex)];
+        }
+        return offset + length;
+    }
+
+    // Writes one ASCII byte per cell at the offset, returns the offset after them
+    public static int writeCompact(final Grid grid, final byte[] target, final int offset) {
+        final int cellCount = grid.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            target[offset + cellIndex] = (byte) CELL_CHARS[grid.getCellValue(cellIndex)];
+        }
+        return offset + cellCount;
+    }
+}
@@ -0,0 +1,24 @@
+package com.iweb.sudoku;
+
+// State of a grid at some point, taken by Grid.snapshot and put back by Grid.restore.
+// Plain array copies of the cells and unit masks, so taking or restoring one is a few
+// System.arraycopy calls. A snapshot can be taken again to reuse its arrays.
+public class GridSnapshot {
+    private final GridLayout layout;
+    final byte[] cells;
+    final int[] rowMasks;
+    final int[] columnMasks;
+    final int[] subGridMasks;
+
+    public GridSnapshot(final GridLayout layout) {
+        this.layout = layout;
+        cells = new byte[layout.cellCount];
+        rowMasks = new int[layout.size];
+        columnMasks = new int[layout.size];
+        subGridMasks = new int[layout.size];
+    }
+
+    public GridLayout getLayout() {
+        return layout;
+    }
+}
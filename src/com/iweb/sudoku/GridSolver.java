@@ -0,0 +1,10 @@
+package com.iweb.sudoku;
+
+public interface GridSolver {
+    // Fills the empty cells of the grid given at construction.
+    // Returns false, leaving the grid as it was, when there is no solution.
+    boolean solve();
+
+    // Figures of the last solve, a new instance is used by every solve
+    SolveStatistics getStatistics();
+}
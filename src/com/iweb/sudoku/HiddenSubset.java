@@ -0,0 +1,69 @@
+package com.iweb.sudoku;
+
+// When n values of a unit can only go in the same n cells, those cells take nothing else
+// and every other candidate is ruled out of them. Pairs and triples in the standard pipeline.
+public class HiddenSubset extends DeductionTechnique {
+    private final int subsetSize;
+
+    public HiddenSubset(final int subsetSize) {
+        super(NakedSubset.subsetName("Hidden", subsetSize));
+        this.subsetSize = subsetSize;
+    }
+
+    public boolean apply(final GridCandidates candidates) {
+        final GridLayout layout = candidates.getGrid().getLayout();
+        final int[] values = new int[layout.size];
+        final int[] positionMasks = new int[layout.size];
+        final int[] masks = readCandidates(candidates);
+        boolean progress = false;
+        for (final int[] unit : layout.units) {
+            // Values that could belong to a subset, with the positions of the cells that can take them
+            int count = 0;
+            for (int value = 1; value <= layout.size; ++value) {
+                final int bit = Grid.bitFor(value);
+                int positions = 0;
+                for (int position = 0; position < unit.length; ++position) {
+                    if ((masks[unit[position]] & bit) != 0) {
+                        positions |= 1 << position;
+                    }
+                }
+                final int positionCount = Integer.bitCount(positions);
+                if (positionCount >= 2 && positionCount <= subsetSize) {
+                    values[count] = bit;
+                    positionMasks[count++] = positions;
+                }
+            }
+            if (count >= subsetSize) {
+                progress |= findSubsets(candidates, unit, values, positionMasks, count, 0, 0, 0, 0);
+            }
+        }
+        return progress;
+    }
+
+    private boolean findSubsets(final GridCandidates candidates, final int[] unit, final int[] values, final int[] positionMasks,
+                                final int count, final int start, final int chosen, final int chosenValues,
+                                final int union) {
+        if (chosen == subsetSize) {
+            if (Integer.bitCount(union) != subsetSize) {
+                return false;
+            }
+            boolean progress = false;
+            final int others = candidates.getGrid().getLayout().allCandidates & ~chosenValues;
+            for (int position = 0; position < unit.length; ++position) {
+                if ((union & (1 << position)) != 0) {
+                    progress |= candidates.exclude(unit[position], others);
+                }
+            }
+            return progress;
+        }
+        boolean progress = false;
+        for (int i = start; i <= count - (subsetSize - chosen); ++i) {
+            final int extendedUnion = union | positionMasks[i];
+            if (Integer.bitCount(extendedUnion) <= subsetSize) {
+                progress |= findSubsets(candidates, unit, values, positionMasks, count, i + 1, chosen + 1,
+                        chosenValues | values[i], extendedUnion);
+            }
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,50 @@
+package com.iweb.sudoku;
+
+// Counts of a histogram at some point, merged from every thread recording into it
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long totalCount;
+
+    HistogramSnapshot(final long[] counts) {
+        this.counts = counts;
+        long total = 0;
+        for (final long count : counts) {
+            total += count;
+        }
+        totalCount = total;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    // Highest value of the bucket holding the given percentile (0 to 100), 0 when empty
+    public long getValueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; ++bucket) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return LatencyHistogram.highestValueOf(bucket);
+            }
+        }
+        return getMax();
+    }
+
+    public long getMax() {
+        for (int bucket = counts.length - 1; bucket >= 0; --bucket) {
+            if (counts[bucket] != 0) {
+                return LatencyHistogram.highestValueOf(bucket);
+            }
+        }
+        return 0;
+    }
+
+    public String toString() {
+        return "count=" + totalCount + ", p50=" + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99)
+                + ", p999=" + getValueAtPercentile(99.9) + ", max=" + getMax();
+    }
+}
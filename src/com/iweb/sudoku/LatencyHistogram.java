@@ -0,0 +1,48 @@
+package com.iweb.sudoku;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts of values in log-linear buckets, HDR style: values below 16 have a bucket each,
+// above that every power of two is split in 16 buckets, so a bucket is at most 1/16th of
+// its values wide. Any positive long fits in 960 buckets.
+// Single writer: record is only called by the owning thread, while snapshots may be taken
+// from any thread.
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(final long value) {
+        final int bucket = bucketOf(Math.max(0, value));
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+    }
+
+    // Adds the counts of this histogram to the given ones
+    void addTo(final long[] totals) {
+        for (int bucket = 0; bucket < BUCKET_COUNT; ++bucket) {
+            totals[bucket] += counts.get(bucket);
+        }
+    }
+
+    static int bucketOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    // Largest value counted in the bucket
+    static long highestValueOf(final int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        final int shift = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final long subBucket = (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
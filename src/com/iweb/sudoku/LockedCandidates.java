@@ -0,0 +1,79 @@
+package com.iweb.sudoku;
+
+// When every cell of a unit that can take a value also lies in a second unit, the value is
+// ruled out of the rest of that second unit: pointing when a sub grid confines it to a line,
+// claiming when a line confines it to a sub grid.
+public class LockedCandidates extends DeductionTechnique {
+    public LockedCandidates() {
+        super("Locked candidates");
+    }
+
+    public boolean apply(final GridCandidates candidates) {
+        final Grid grid = candidates.getGrid();
+        final GridLayout layout = grid.getLayout();
+        final int size = layout.size;
+        final int[][] units = layout.units;
+        final int[] masks = readCandidates(candidates);
+        boolean progress = false;
+        for (int unitIndex = 0; unitIndex < units.length; ++unitIndex) {
+            final int[] unit = units[unitIndex];
+            for (int bit = 1; bit <= layout.allCandidates; bit <<= 1) {
+                int count = 0;
+                int row = -1;
+                int column = -1;
+                int subGrid = -1;
+                for (final int cellIndex : unit) {
+                    if ((masks[cellIndex] & bit) == 0) {
+                        continue; // with next cell
+                    }
+                    if (count++ == 0) {
+                        row = layout.rowOf[cellIndex];
+                        column = layout.columnOf[cellIndex];
+                        subGrid = layout.subGridOf[cellIndex];
+                    } else {
+                        row = row == layout.rowOf[cellIndex] ? row : -1;
+                        column = column == layout.columnOf[cellIndex] ? column : -1;
+                        subGrid = subGrid == layout.subGridOf[cellIndex] ? subGrid : -1;
+                    }
+                }
+                if (count < 2) {
+                    continue; // placed, a hidden single or a dead end, all left to propagation
+                }
+
+                if (unitIndex >= 2 * size) {
+                    final int confiningSubGrid = unitIndex - 2 * size;
+                    if (row >= 0) {
+                        progress |= excludeOutsideSubGrid(candidates, units[row], confiningSubGrid, bit);
+                    }
+                    if (column >= 0) {
+                        progress |= excludeOutsideSubGrid(candidates, units[size + column], confiningSubGrid, bit);
+                    }
+                } else if (subGrid >= 0) {
+                    final int[] subGridUnit = units[2 * size + subGrid];
+                    for (final int cellIndex : subGridUnit) {
+                        final boolean inLine = unitIndex < size
+                                ? layout.rowOf[cellIndex] == unitIndex
+                                : layout.columnOf[cellIndex] == unitIndex - size;
+                        if (!inLine && (masks[cellIndex] & bit) != 0) {
+                            progress |= candidates.exclude(cellIndex, bit);
+                        }
+                    }
+                }
+            }
+        }
+        return progress;
+    }
+
+    private static boolean excludeOutsideSubGrid(final GridCandidates candidates, final int[] line, final int subGrid,
+                                                 final int bit) {
+        final Grid grid = candidates.getGrid();
+        final GridLayout layout = grid.getLayout();
+        boolean progress = false;
+        for (final int cellIndex : line) {
+            if (layout.subGridOf[cellIndex] != subGrid && !grid.cellHasValue(cellIndex)) {
+                progress |= candidates.exclude(cellIndex, bit);
+            }
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,362 @@
+package com.iweb.sudoku;
+
+import java.util.Arrays;
+
+// Solves 9x9 puzzles by the hundred: a chunk of them is laid out as structure of arrays,
+// one row of candidate masks per cell, holding that cell's mask in every puzzle of the chunk.
+// Naked and hidden singles are then propagated over all the puzzles at once, each step being
+// a loop over the puzzles on plain int arrays. The puzzles left with empty cells are finished
+// by the scalar Solver, so this pays off on easy and medium puzzles.
+public class LockstepSolver {
+    public static final int DEFAULT_LANES = 256;
+
+    private static final int CELL_COUNT = Grid.CELL_COUNT;
+    private static final int ALL_CANDIDATES = Grid.ALL_CANDIDATES;
+    private static final int[][] UNITS = Grid.UNITS;
+
+    // What singles left of a puzzle
+    private static final int NO_SOLUTION = 0;
+    private static final int COMPLETE = 1;
+    private static final int NEEDS_SEARCH = 2;
+
+    private final int lanes;
+
+    // Candidates of cell c in puzzle p at [c][p], a single bit once the value is known
+    private final int[][] candidates;
+
+    // Per puzzle, in the unit being swept: values known, known twice, seen as candidate
+    // once and twice, and left to a single cell
+    private final int[] known;
+    private final int[] knownTwice;
+    private final int[] seenOnce;
+    private final int[] seenTwice;
+    private final int[] unique;
+    // Per puzzle, not 0 once a candidate was removed during the sweep
+    private final int[] changes;
+    // Per puzzle, not 0 once a value is found twice or without a place in a unit
+    private final int[] failures;
+
+    // Outcome of the puzzles of the last solve, in order
+    private boolean[] solved = new boolean[0];
+    private int fallbackCount;
+    private SolverMetrics metrics;
+    // Where the scalar search of a puzzle given as cell values runs
+    private final Grid fallbackGrid = new Grid();
+    // Puzzles of the chunk being solved per outcome
+    private final int[] outcomeCounts = new int[NEEDS_SEARCH + 1];
+
+    public LockstepSolver() {
+        this(DEFAULT_LANES);
+    }
+
+    public LockstepSolver(final int lanes) {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("Lanes must be at least 1, got " + lanes);
+        }
+        this.lanes = lanes;
+        candidates = new int[CELL_COUNT][lanes];
+        known = new int[lanes];
+        knownTwice = new int[lanes];
+        seenOnce = new int[lanes];
+        seenTwice = new int[lanes];
+        unique = new int[lanes];
+        changes = new int[lanes];
+        failures = new int[lanes];
+    }
+
+    // The outcome of every chunk, and the scalar solves of the puzzles that need guesses,
+    // are then recorded in the metrics
+    public void setMetrics(final SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Fills the first count grids with their solution, or leaves a grid as it was when it has none.
+    // Returns how many were solved.
+    public int solve(final Grid[] grids, final int count) {
+        for (int i = 0; i < count; ++i) {
+            if (grids[i].getLayout() != GridLayout.of(3)) {
+                throw new IllegalArgumentException("Lockstep solving needs a 9x9 grid, got " + grids[i].getLayout());
+            }
+        }
+        prepare(count);
+
+        int solvedCount = 0;
+        for (int offset = 0; offset < count; offset += lanes) {
+            solvedCount += solveChunk(grids, offset, Math.min(lanes, count - offset));
+        }
+        return solvedCount;
+    }
+
+    // Solves the first count 9x9 puzzles held one after another in cells, Grid.CELL_COUNT values
+    // each with Grid.EMPTY for an empty cell, in place. A puzzle without solution is left as it was.
+    // Returns how many were solved.
+    public int solve(final byte[] cells, final int count) {
+        if (cells.length < count * CELL_COUNT) {
+            throw new IllegalArgumentException("Expected the cells of " + count + " puzzles, got " + cells.length + " cells");
+        }
+        prepare(count);
+
+        int solvedCount = 0;
+        for (int offset = 0; offset < count; offset += lanes) {
+            solvedCount += solveChunk(cells, offset, Math.min(lanes, count - offset));
+        }
+        return solvedCount;
+    }
+
+    public boolean isSolved(final int index) {
+        return solved[index];
+    }
+
+    // Puzzles of the last solve that singles alone didn't finish
+    public int getFallbackCount() {
+        return fallbackCount;
+    }
+
+    private void prepare(final int count) {
+        if (solved.length < count) {
+            solved = new boolean[count];
+        }
+        fallbackCount = 0;
+    }
+
+    private int solveChunk(final Grid[] grids, final int offset, final int width) {
+        for (int lane = 0; lane < width; ++lane) {
+            load(lane, grids[offset + lane]);
+        }
+        propagate(width);
+
+        int solvedCount = 0;
+        for (int lane = 0; lane < width; ++lane) {
+            final Grid grid = grids[offset + lane];
+            final int outcome = outcomeOf(lane);
+            if (outcome == COMPLETE) {
+                store(lane, grid);
+            }
+            final boolean laneSolved = outcome == COMPLETE || outcome == NEEDS_SEARCH && solveWithFallback(lane, grid);
+            solved[offset + lane] = laneSolved;
+            if (laneSolved) {
+                solvedCount++;
+            }
+            outcomeCounts[outcome]++;
+        }
+        recordChunk();
+        return solvedCount;
+    }
+
+    private int solveChunk(final byte[] cells, final int offset, final int width) {
+        for (int lane = 0; lane < width; ++lane) {
+            load(lane, cells, (offset + lane) * CELL_COUNT);
+        }
+        propagate(width);
+
+        int solvedCount = 0;
+        for (int lane = 0; lane < width; ++lane) {
+            final int cellOffset = (offset + lane) * CELL_COUNT;
+            final int outcome = outcomeOf(lane);
+            if (outcome == COMPLETE) {
+                store(lane, cells, cellOffset);
+            }
+            final boolean laneSolved = outcome == COMPLETE
+                    || outcome == NEEDS_SEARCH && solveWithFallback(lane, cells, cellOffset);
+            solved[offset + lane] = laneSolved;
+            if (laneSolved) {
+                solvedCount++;
+            }
+            outcomeCounts[outcome]++;
+        }
+        recordChunk();
+        return solvedCount;
+    }
+
+    private void recordChunk() {
+        if (metrics != null) {
+            metrics.recordLockstepChunk(outcomeCounts[COMPLETE], outcomeCounts[NO_SOLUTION], outcomeCounts[NEEDS_SEARCH]);
+        }
+        Arrays.fill(outcomeCounts, 0);
+    }
+
+    private void load(final int lane, final Grid grid) {
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; ++cellIndex) {
+            final int value = grid.getCellValue(cellIndex);
+            candidates[cellIndex][lane] = value == Grid.EMPTY ? ALL_CANDIDATES : Grid.bitFor(value);
+        }
+        failures[lane] = 0;
+    }
+
+    private void load(final int lane, final byte[] cells, final int cellOffset) {
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; ++cellIndex) {
+            final int value = cells[cellOffset + cellIndex];
+            candidates[cellIndex][lane] = value == Grid.EMPTY ? ALL_CANDIDATES : Grid.bitFor(value);
+        }
+        failures[lane] = 0;
+    }
+
+    // Sweeps every unit of every puzzle until a whole sweep changes nothing. In a unit, known
+    // values are removed from the other cells, and a value left to a single cell is placed there.
+    // Every loop over the puzzles is short, without branch and with all its arrays indexed
+    // alike, so the JIT unrolls it into vector instructions. Hence the (x | -x) >> 31, all
+    // ones when x isn't 0 and 0 when it is, the masks having no sign bit.
+    private void propagate(final int width) {
+        boolean changed = true;
+        while (changed) {
+            for (final int[] unit : UNITS) {
+                clearUnit(width);
+                for (final int cellIndex : unit) {
+                    scanCell(candidates[cellIndex], width);
+                }
+                checkUnit(width);
+                for (final int cellIndex : unit) {
+                    reduceCell(candidates[cellIndex], width);
+                }
+            }
+
+            changed = false;
+            for (int lane = 0; lane < width; ++lane) {
+                changed |= changes[lane] != 0;
+                changes[lane] = 0;
+            }
+        }
+    }
+
+    private void clearUnit(final int width) {
+        final int[] known = this.known;
+        final int[] knownTwice = this.knownTwice;
+        final int[] seenOnce = this.seenOnce;
+        final int[] seenTwice = this.seenTwice;
+        for (int lane = 0; lane < width; ++lane) {
+            known[lane] = 0;
+            knownTwice[lane] = 0;
+            seenOnce[lane] = 0;
+            seenTwice[lane] = 0;
+        }
+    }
+
+    private void scanCell(final int[] cell, final int width) {
+        final int[] known = this.known;
+        final int[] knownTwice = this.knownTwice;
+        final int[] seenOnce = this.seenOnce;
+        final int[] seenTwice = this.seenTwice;
+        for (int lane = 0; lane < width; ++lane) {
+            final int mask = cell[lane];
+            final int others = mask & (mask - 1);
+            final int single = mask & ~((others | -others) >> 31);
+            knownTwice[lane] |= known[lane] & single;
+            known[lane] |= single;
+            seenTwice[lane] |= seenOnce[lane] & mask;
+            seenOnce[lane] |= mask;
+        }
+    }
+
+    private void checkUnit(final int width) {
+        final int[] known = this.known;
+        final int[] knownTwice = this.knownTwice;
+        final int[] seenOnce = this.seenOnce;
+        final int[] seenTwice = this.seenTwice;
+        final int[] unique = this.unique;
+        final int[] failures = this.failures;
+        for (int lane = 0; lane < width; ++lane) {
+            unique[lane] = seenOnce[lane] & ~seenTwice[lane] & ~known[lane];
+            failures[lane] |= knownTwice[lane] | (seenOnce[lane] ^ ALL_CANDIDATES);
+        }
+    }
+
+    // A cell holding a value left to it alone takes it, another one with several candidates loses
+    // the known values. A cell holding two unique values keeps both, the fallback search finds out.
+    private void reduceCell(final int[] cell, final int width) {
+        final int[] known = this.known;
+        final int[] unique = this.unique;
+        final int[] changes = this.changes;
+        for (int lane = 0; lane < width; ++lane) {
+            final int mask = cell[lane];
+            final int others = mask & (mask - 1);
+            final int multiple = (others | -others) >> 31;
+            final int hidden = mask & unique[lane];
+            final int hasHidden = (hidden | -hidden) >> 31;
+            final int reduced = (hasHidden & hidden) | (~hasHidden & mask & (~known[lane] | ~multiple));
+            changes[lane] |= reduced ^ mask;
+            cell[lane] = reduced;
+        }
+    }
+
+    private int outcomeOf(final int lane) {
+        if (failures[lane] != 0 || hasDeadEnd(lane)) {
+            return NO_SOLUTION;
+        }
+        return isComplete(lane) ? COMPLETE : NEEDS_SEARCH;
+    }
+
+    private boolean hasDeadEnd(final int lane) {
+        for (final int[] cell : candidates) {
+            if (cell[lane] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Every cell has one value left
+    private boolean isComplete(final int lane) {
+        for (final int[] cell : candidates) {
+            final int mask = cell[lane];
+            if ((mask & (mask - 1)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Writes the values known in lockstep to the empty cells of the grid
+    private void store(final int lane, final Grid grid) {
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; ++cellIndex) {
+            final int mask = candidates[cellIndex][lane];
+            if (!grid.cellHasValue(cellIndex) && (mask & (mask - 1)) == 0) {
+                grid.setCell(cellIndex, Grid.valueOf(mask));
+            }
+        }
+    }
+
+    private void store(final int lane, final byte[] cells, final int cellOffset) {
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; ++cellIndex) {
+            cells[cellOffset + cellIndex] = (byte) Grid.valueOf(candidates[cellIndex][lane]);
+        }
+    }
+
+    // Starts the scalar search from the values found in lockstep, on a copy so the grid
+    // stays as it was when there is no solution
+    private boolean solveWithFallback(final int lane, final Grid grid) {
+        fallbackCount++;
+        final Grid reduced = grid.copy();
+        store(lane, reduced);
+        final Solver solver = new Solver(reduced, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.setMetrics(metrics);
+        if (!solver.solve()) {
+            return false;
+        }
+        grid.copyFrom(reduced);
+        return true;
+    }
+
+    // The cells are only written once solved
+    private boolean solveWithFallback(final int lane, final byte[] cells, final int cellOffset) {
+        fallbackCount++;
+        final Grid reduced = fallbackGrid;
+        reduced.clear();
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; ++cellIndex) {
+            final int mask = candidates[cellIndex][lane];
+            if ((mask & (mask - 1)) == 0) {
+                reduced.setCell(cellIndex, Grid.valueOf(mask));
+            }
+        }
+        final Solver solver = new Solver(reduced, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.setMetrics(metrics);
+        if (!solver.solve()) {
+            return false;
+        }
+        for (int cellIndex = 0; cellIndex < CELL_COUNT; ++cellIndex) {
+            cells[cellOffset + cellIndex] = (byte) reduced.getCellValue(cellIndex);
+        }
+        return true;
+    }
+}
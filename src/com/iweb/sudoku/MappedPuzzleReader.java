@@ -0,0 +1,148 @@
+package com.iweb.sudoku;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Reads a file of one puzzle per line, or spread over several lines like the boxed format,
+// through a memory mapped window sliding over the file, parsing every puzzle straight from
+// the mapped bytes. Heap use doesn't depend on the file size.
+public class MappedPuzzleReader implements Closeable {
+    private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileInputStream stream;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart = 0;
+    private int position = 0;
+    private long lineNumber = 0;
+    // Bounds of the line found last in the window
+    private int lineStart = 0;
+    private int lineLength = 0;
+    // Start in the window of the grid being read over several lines, kept when the window slides
+    private int gridStart = -1;
+
+    public MappedPuzzleReader(final File file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedPuzzleReader(final File file, final int windowSize) throws IOException {
+        this.windowSize = windowSize;
+        stream = new FileInputStream(file);
+        channel = stream.getChannel();
+        fileSize = channel.size();
+        mapWindow(0);
+    }
+
+    // Parses the next non blank line into the target grid.
+    // Returns null at the end of the file.
+    public ParseResult next(final Grid target) throws IOException {
+        return nextLine() ? GridParser.parse(window, lineStart, lineLength, target) : null;
+    }
+
+    // Parses the next non blank line, a 9x9 grid, into Grid.CELL_COUNT values of the cells
+    // array from cellOffset. Returns null at the end of the file.
+    public ParseResult next(final byte[] cells, final int cellOffset) throws IOException {
+        return nextLine() ? GridParser.parse(window, lineStart, lineLength, cells, cellOffset) : null;
+    }
+
+    // Parses the next grid spread over lines, such as the boxed format of Grid.toString, into the
+    // target grid: lines are taken from the first one holding cells until they hold as many cells
+    // as the grid, the lines without cells around grids, such as box borders, are skipped.
+    // Returns null at the end of the file. getLineNumber is then the line of the last cell.
+    public ParseResult nextMultiLine(final Grid target) throws IOException {
+        final int size = target.getSize();
+        int cellCount = 0;
+        while (cellCount == 0) {
+            if (!nextLine()) {
+                return null;
+            }
+            cellCount = GridParser.countCells(window, lineStart, lineLength, size);
+        }
+        gridStart = lineStart;
+        try {
+            while (cellCount < target.getCellCount() && nextLine()) {
+                cellCount += GridParser.countCells(window, lineStart, lineLength, size);
+            }
+            return GridParser.parse(window, gridStart, lineStart + lineLength - gridStart, target);
+        }
+        finally {
+            gridStart = -1;
+        }
+    }
+
+    // Finds the next non blank line in the window, false at the end of the file
+    private boolean nextLine() throws IOException {
+        while (true) {
+            final int lineEnd = findLineEnd();
+            if (lineEnd < 0) {
+                if (windowStart + window.limit() < fileSize) {
+                    final int kept = gridStart < 0 ? position : gridStart;
+                    if (kept == 0) {
+                        throw new IOException((gridStart < 0 ? "Line " : "Grid up to line ") + (lineNumber + 1) + " is longer than the " + windowSize + " bytes window");
+                    }
+                    final int resumed = position - kept;
+                    mapWindow(windowStart + kept);
+                    position = resumed;
+                    if (gridStart >= 0) {
+                        gridStart = 0;
+                    }
+                    continue; // looking for the end of the line in the new window
+                }
+                if (position == window.limit()) {
+                    return false; // end of file
+                }
+            }
+
+            final int contentEnd = lineEnd < 0 ? window.limit() : lineEnd;
+            lineStart = position;
+            lineLength = contentEnd - lineStart;
+            position = lineEnd < 0 ? window.limit() : lineEnd + 1;
+            lineNumber++;
+            if (!isBlank(lineStart, contentEnd)) {
+                return true;
+            }
+        }
+    }
+
+    // Number of the line read by the last call to next, starting at 1
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private int findLineEnd() {
+        final int limit = window.limit();
+        for (int i = position; i < limit; ++i) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isBlank(final int start, final int end) {
+        for (int i = start; i < end; ++i) {
+            if (window.get(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void mapWindow(final long start) throws IOException {
+        final long size = Math.min(windowSize, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        position = 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.iweb.sudoku;
+
+import java.io.IOException;
+
+// Figures of a SolverMetrics at some point. toString gives one "name value" line per figure.
+public class MetricsSnapshot {
+    private final long uptimeNanos;
+    private final long solves;
+    private final long solved;
+    private final long unsolvable;
+    private final long timedOut;
+    private final long cancelled;
+    private final long tries;
+    private final long backtracks;
+    private final long propagations;
+    private final long solveNanos;
+    private final long validations;
+    private final long duplicates;
+    private final long lockstepSolved;
+    private final long lockstepUnsolvable;
+    private final long lockstepFallbacks;
+    private final HistogramSnapshot solveLatencies;
+    private final long[] candidateCounts;
+
+    // Counters in the order SolverMetrics lists them
+    MetricsSnapshot(final long uptimeNanos, final long[] counters, final HistogramSnapshot solveLatencies,
+                    final long[] candidateCounts) {
+        this.uptimeNanos = uptimeNanos;
+        solves = counters[0];
+        solved = counters[1];
+        unsolvable = counters[2];
+        timedOut = counters[3];
+        cancelled = counters[4];
+        tries = counters[5];
+        backtracks = counters[6];
+        propagations = counters[7];
+        solveNanos = counters[8];
+        validations = counters[9];
+        duplicates = counters[10];
+        lockstepSolved = counters[11];
+        lockstepUnsolvable = counters[12];
+        lockstepFallbacks = counters[13];
+        this.solveLatencies = solveLatencies;
+        this.candidateCounts = candidateCounts;
+    }
+
+    public long getUptimeNanos() {
+        return uptimeNanos;
+    }
+
+    public long getSolves() {
+        return solves;
+    }
+
+    public long getSolved() {
+        return solved;
+    }
+
+    public long getUnsolvable() {
+        return unsolvable;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public long getTries() {
+        return tries;
+    }
+
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    public long getPropagations() {
+        return propagations;
+    }
+
+    public long getValidations() {
+        return validations;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    // Puzzles solved by lockstep singles alone
+    public long getLockstepSolved() {
+        return lockstepSolved;
+    }
+
+    public long getLockstepUnsolvable() {
+        return lockstepUnsolvable;
+    }
+
+    // Puzzles lockstep singles left to the scalar solver
+    public long getLockstepFallbacks() {
+        return lockstepFallbacks;
+    }
+
+    // Search nodes per second of solving time, summed over the threads
+    public double getTriesPerSecond() {
+        return solveNanos == 0 ? 0 : tries * 1e9 / solveNanos;
+    }
+
+    public double getSolvesPerSecond() {
+        return uptimeNanos == 0 ? 0 : solves * 1e9 / uptimeNanos;
+    }
+
+    // Solve latencies in nanoseconds
+    public HistogramSnapshot getSolveLatencies() {
+        return solveLatencies;
+    }
+
+    // Number of branchings on a cell with that many candidates
+    public long getCandidateCount(final int candidateCount) {
+        return candidateCounts[candidateCount];
+    }
+
+    public void dump(final Appendable target) throws IOException {
+        target.append(toString());
+    }
+
+    public String toString() {
+        final StringBuilder buf = new StringBuilder(1024);
+        appendLine(buf, "uptime_ms", uptimeNanos / 1000000);
+        appendLine(buf, "solves", solves);
+        appendLine(buf, "solves_solved", solved);
+        appendLine(buf, "solves_unsolvable", unsolvable);
+        appendLine(buf, "solves_timed_out", timedOut);
+        appendLine(buf, "solves_cancelled", cancelled);
+        appendLine(buf, "solves_per_second", Math.round(getSolvesPerSecond()));
+        appendLine(buf, "tries", tries);
+        appendLine(buf, "tries_per_second", Math.round(getTriesPerSecond()));
+        appendLine(buf, "backtracks", backtracks);
+        appendLine(buf, "propagations", propagations);
+        appendLine(buf, "validations", validations);
+        appendLine(buf, "validations_with_duplicate", duplicates);
+        appendLine(buf, "lockstep_solved", lockstepSolved);
+        appendLine(buf, "lockstep_unsolvable", lockstepUnsolvable);
+        appendLine(buf, "lockstep_to_scalar", lockstepFallbacks);
+        appendLine(buf, "solve_latency_ns_p50", solveLatencies.getValueAtPercentile(50));
+        appendLine(buf, "solve_latency_ns_p99", solveLatencies.getValueAtPercentile(99));
+        appendLine(buf, "solve_latency_ns_p999", solveLatencies.getValueAtPercentile(99.9));
+        appendLine(buf, "solve_latency_ns_max", solveLatencies.getMax());
+        for (int count = 0; count < candidateCounts.length; ++count) {
+            if (candidateCounts[count] != 0) {
+                appendLine(buf, "branchings_on_" + count + "_candidates", candidateCounts[count]);
+            }
+        }
+        return buf.toString();
+    }
+
+    private static void appendLine(final StringBuilder buf, final String name, final long value) {
+        buf.append(name).append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,61 @@
+package com.iweb.sudoku;
+
+// When n cells of a unit have only n candidates between them, those values go in those
+// cells and are ruled out of the rest of the unit. Pairs and triples in the standard pipeline.
+public class NakedSubset extends DeductionTechnique {
+    private final int subsetSize;
+
+    public NakedSubset(final int subsetSize) {
+        super(subsetName("Naked", subsetSize));
+        this.subsetSize = subsetSize;
+    }
+
+    static String subsetName(final String kind, final int subsetSize) {
+        if (subsetSize < 2) {
+            throw new IllegalArgumentException("Subset size must be at least 2, got " + subsetSize);
+        }
+        return kind + (subsetSize == 2 ? " pair" : subsetSize == 3 ? " triple" : " subset of " + subsetSize);
+    }
+
+    public boolean apply(final GridCandidates candidates) {
+        final Grid grid = candidates.getGrid();
+        final int[][] units = grid.getLayout().units;
+        final int[] positions = new int[grid.getSize()];
+        final int[] masks = new int[grid.getSize()];
+        final int[] cellMasks = readCandidates(candidates);
+        boolean progress = false;
+        for (final int[] unit : units) {
+            // Cells that could belong to a subset, the others either have a value or too many candidates
+            int count = 0;
+            for (int position = 0; position < unit.length; ++position) {
+                final int cellCandidates = cellMasks[unit[position]];
+                final int candidateCount = Integer.bitCount(cellCandidates);
+                if (candidateCount >= 2 && candidateCount <= subsetSize) {
+                    positions[count] = position;
+                    masks[count++] = cellCandidates;
+                }
+            }
+            if (count >= subsetSize) {
+                progress |= findSubsets(candidates, unit, positions, masks, count, 0, 0, 0, 0);
+            }
+        }
+        return progress;
+    }
+
+    private boolean findSubsets(final GridCandidates candidates, final int[] unit, final int[] positions, final int[] masks,
+                                final int count, final int start, final int chosen, final int chosenPositions,
+                                final int union) {
+        if (chosen == subsetSize) {
+            return Integer.bitCount(union) == subsetSize && excludeFromUnit(candidates, unit, chosenPositions, union);
+        }
+        boolean progress = false;
+        for (int i = start; i <= count - (subsetSize - chosen); ++i) {
+            final int extendedUnion = union | masks[i];
+            if (Integer.bitCount(extendedUnion) <= subsetSize) {
+                progress |= findSubsets(candidates, unit, positions, masks, count, i + 1, chosen + 1,
+                        chosenPositions | (1 << positions[i]), extendedUnion);
+            }
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,228 @@
+package com.iweb.sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Splits the top levels of the search tree into fork/join tasks, each one working on its own
+// copy of the grid. Below the split depth, every subtree is searched by a sequential Solver.
+// The first subtree reaching a solution cancels all the others, and so does the first one
+// running out of time: the time limit and cancellation token apply to the whole solve.
+public class ParallelSolver implements GridSolver {
+    private static final int DEFAULT_SPLIT_DEPTH = 3;
+    private static final ForkJoinPool DEFAULT_POOL = new ForkJoinPool();
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private final Grid grid;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private CancellationToken cancellationToken;
+    private long timeLimitNanos = NO_LIMIT;
+
+    private SolveStatistics statistics = new SolveStatistics();
+
+    public ParallelSolver(final Grid grid) {
+        this(grid, DEFAULT_POOL, DEFAULT_SPLIT_DEPTH);
+    }
+
+    public ParallelSolver(final Grid grid, final ForkJoinPool pool, final int splitDepth) {
+        this.grid = grid;
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    // The solve gives up with a CANCELLED outcome once the token is cancelled
+    public void setCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    // The solve gives up with a TIMED_OUT outcome once it ran for that long
+    public void setTimeLimit(final long timeLimit, final TimeUnit unit) {
+        if (timeLimit <= 0) {
+            throw new IllegalArgumentException("Time limit must be positive, got " + timeLimit);
+        }
+        timeLimitNanos = unit.toNanos(timeLimit);
+    }
+
+    public boolean solve() {
+        final long start = System.nanoTime();
+        final SharedSearch search = new SharedSearch(cancellationToken,
+                timeLimitNanos == NO_LIMIT ? 0 : start + timeLimitNanos);
+        final Grid solution = pool.invoke(new SubtreeSearch(grid.copy(), 0, search));
+
+        statistics = search.toStatistics();
+        statistics.outcome = solution == null ? search.failureOutcome() : SolveOutcome.SOLVED;
+        statistics.elapsedNanos = System.nanoTime() - start;
+        if (solution == null) {
+            return false;
+        }
+
+        grid.copyFrom(solution);
+        return true;
+    }
+
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    // State shared by every task of one solve
+    private static class SharedSearch {
+        // Cancelled once a subtree is solved or out of time, or when the caller's token is
+        private final CancellationToken stopped;
+        private final CancellationToken external;
+        // System.nanoTime() to give up at, 0 without a time limit
+        private final long deadline;
+        private volatile boolean timedOut = false;
+        private final AtomicLong tries = new AtomicLong();
+        private final AtomicLong backtracks = new AtomicLong();
+        private final AtomicLong propagations = new AtomicLong();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        private SharedSearch(final CancellationToken external, final long deadline) {
+            this.external = external;
+            this.deadline = deadline;
+            stopped = new CancellationToken(external);
+        }
+
+        // Time left to a subtree, 0 once the deadline is past, NO_LIMIT without deadline
+        private long remainingNanos() {
+            if (deadline == 0) {
+                return NO_LIMIT;
+            }
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                timeOut();
+                return 0;
+            }
+            return remaining;
+        }
+
+        private void timeOut() {
+            timedOut = true;
+            stopped.cancel();
+        }
+
+        // Outcome of a solve without solution, which is only UNSOLVABLE when nothing stopped it
+        private SolveOutcome failureOutcome() {
+            if (timedOut) {
+                return SolveOutcome.TIMED_OUT;
+            }
+            if (external != null && external.isCancelled()) {
+                return SolveOutcome.CANCELLED;
+            }
+            return SolveOutcome.UNSOLVABLE;
+        }
+
+        private void reachedDepth(final int depth) {
+            int current = maxDepth.get();
+            while (depth > current && !maxDepth.compareAndSet(current, depth)) {
+                current = maxDepth.get();
+            }
+        }
+
+        private SolveStatistics toStatistics() {
+            final SolveStatistics statistics = new SolveStatistics();
+            statistics.tries = tries.get();
+            statistics.backtracks = backtracks.get();
+            statistics.propagations = propagations.get();
+            statistics.maxDepth = maxDepth.get();
+            return statistics;
+        }
+    }
+
+    private class SubtreeSearch extends RecursiveTask<Grid> {
+        private static final long serialVersionUID = 1L;
+
+        private final Grid subtreeGrid;
+        private final int depth;
+        private final SharedSearch search;
+
+        private SubtreeSearch(final Grid subtreeGrid, final int depth, final SharedSearch search) {
+            this.subtreeGrid = subtreeGrid;
+            this.depth = depth;
+            this.search = search;
+        }
+
+        protected Grid compute() {
+            if (search.stopped.isCancelled()) {
+                return null;
+            }
+            search.reachedDepth(depth);
+            return depth < splitDepth ? split() : searchSequentially();
+        }
+
+        private Grid split() {
+            final ConstraintPropagator propagator = new ConstraintPropagator(subtreeGrid);
+            final boolean consistent = propagator.propagate();
+            search.propagations.addAndGet(propagator.getPlacementCount());
+            if (!consistent) {
+                return null;
+            }
+
+            final int cellIndex = Solver.findCellWithFewestCandidates(subtreeGrid);
+            if (cellIndex < 0) {
+                search.stopped.cancel();
+                return subtreeGrid; // every cell has a value
+            }
+
+            final List<SubtreeSearch> subtasks = new ArrayList<SubtreeSearch>(Grid.SIZE);
+            int remaining = subtreeGrid.getCandidateMaskFor(cellIndex);
+            while (remaining != 0) {
+                final int bit = remaining & -remaining;
+                remaining ^= bit;
+                final Grid branch = subtreeGrid.copy();
+                branch.setCell(cellIndex, Grid.valueOf(bit));
+                subtasks.add(new SubtreeSearch(branch, depth + 1, search));
+            }
+            search.tries.addAndGet(subtasks.size());
+
+            for (final SubtreeSearch subtask : subtasks) {
+                subtask.fork();
+            }
+            Grid solution = null;
+            for (final SubtreeSearch subtask : subtasks) {
+                if (solution != null) {
+                    subtask.cancel(false);
+                } else {
+                    solution = subtask.join();
+                    if (solution == null) {
+                        search.backtracks.incrementAndGet();
+                    }
+                }
+            }
+            return solution;
+        }
+
+        private Grid searchSequentially() {
+            final long remainingNanos = search.remainingNanos();
+            if (remainingNanos == 0) {
+                return null;
+            }
+            final Solver solver = new Solver(subtreeGrid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+            solver.setConstraintPropagation(true);
+            solver.setCancellationToken(search.stopped);
+            if (remainingNanos != NO_LIMIT) {
+                solver.setTimeLimit(remainingNanos, TimeUnit.NANOSECONDS);
+            }
+            final boolean solved = solver.solve();
+
+            final SolveStatistics subtreeStatistics = solver.getStatistics();
+            search.tries.addAndGet(subtreeStatistics.getTries());
+            search.backtracks.addAndGet(subtreeStatistics.getBacktracks());
+            search.propagations.addAndGet(subtreeStatistics.getPropagations());
+            search.reachedDepth(depth + subtreeStatistics.getMaxDepth());
+            if (subtreeStatistics.getOutcome() == SolveOutcome.TIMED_OUT) {
+                search.timeOut();
+            }
+            if (!solved) {
+                return null;
+            }
+            search.stopped.cancel();
+            return subtreeGrid;
+        }
+    }
+}
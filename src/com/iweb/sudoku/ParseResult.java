@@ -0,0 +1,40 @@
+package com.iweb.sudoku;
+
+public class ParseResult {
+    private static final ParseResult VALID = new ParseResult(true, Grid.CELL_COUNT, null);
+
+    private final boolean valid;
+    private final int cellCount;
+    private final String message;
+
+    private ParseResult(final boolean valid, final int cellCount, final String message) {
+        this.valid = valid;
+        this.cellCount = cellCount;
+        this.message = message;
+    }
+
+    static ParseResult valid(final int cellCount) {
+        return cellCount == Grid.CELL_COUNT ? VALID : new ParseResult(true, cellCount, null);
+    }
+
+    static ParseResult invalidCellCount(final int expectedCount, final int cellCount) {
+        return new ParseResult(false, cellCount, "Expected " + expectedCount + " cells but found " + cellCount);
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    // Number of cell characters ('.', '0' or a value of the grid) found in the input
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public String getMessage() {
+        return valid ? "Valid grid" : message;
+    }
+
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,173 @@
+package com.iweb.sudoku;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Makes puzzles with a unique solution. A random full grid is made by filling the diagonal
+// sub grids, which don't constrain each other, with shuffled values and solving the rest.
+// Its clues are then removed in random order, each one only if the solution stays unique
+// and the puzzle doesn't get harder than the target, until no clue can be removed.
+// A generator is driven by its own Random, so the same seed gives the same puzzles.
+public class PuzzleGenerator {
+    private static final int MAX_ATTEMPTS = 1000;
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private final GridLayout layout;
+    private final Random random;
+
+    // Shuffled values and cell order, reused by every puzzle
+    private final int[] values;
+    private final int[] cellOrder;
+
+    public PuzzleGenerator(final long seed) {
+        this(GridLayout.of(3), seed);
+    }
+
+    public PuzzleGenerator(final GridLayout layout, final long seed) {
+        this.layout = layout;
+        random = new Random(seed);
+        values = new int[layout.getSize()];
+        cellOrder = new int[layout.getCellCount()];
+    }
+
+    // A minimal puzzle of any difficulty
+    public GeneratedPuzzle generate() {
+        return generate(null);
+    }
+
+    // Tries new full grids until the puzzle reached has the target difficulty. A clue whose
+    // removal would go above the target is kept, so with a target the puzzle may not be minimal.
+    public GeneratedPuzzle generate(final Difficulty target) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; ++attempt) {
+            final GeneratedPuzzle puzzle = removeClues(createSolvedGrid(), target);
+            if (target == null || puzzle.getDifficulty() == target) {
+                return puzzle;
+            }
+        }
+        throw new IllegalStateException("No " + target + " puzzle found in " + MAX_ATTEMPTS + " attempts");
+    }
+
+    private Grid createSolvedGrid() {
+        final Grid grid = new Grid(layout);
+        final int boxSize = layout.getBoxSize();
+        final int size = layout.getSize();
+        for (int box = 0; box < boxSize; ++box) {
+            for (int i = 0; i < size; ++i) {
+                values[i] = i + 1;
+            }
+            shuffle(values);
+            for (int i = 0; i < size; ++i) {
+                final int row = box * boxSize + i / boxSize;
+                final int column = box * boxSize + i % boxSize;
+                grid.setCell(row * size + column, values[i]);
+            }
+        }
+
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.solve(); // never fails, nothing outside the diagonal constrains it
+        return grid;
+    }
+
+    private GeneratedPuzzle removeClues(final Grid solution, final Difficulty target) {
+        final Grid puzzle = solution.copy();
+        final Solver solver = new Solver(puzzle, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+
+        for (int i = 0; i < cellOrder.length; ++i) {
+            cellOrder[i] = i;
+        }
+        shuffle(cellOrder);
+
+        Difficulty difficulty = Difficulty.EASY;
+        for (final int cellIndex : cellOrder) {
+            final int value = puzzle.getCellValue(cellIndex);
+            puzzle.clearCell(cellIndex);
+            final boolean unique = solver.countSolutions(2) == 1;
+            final Difficulty removedDifficulty = Difficulty.of(solver.getStatistics());
+            if (unique && (target == null || removedDifficulty.compareTo(target) <= 0)) {
+                difficulty = removedDifficulty;
+            } else {
+                puzzle.setCell(cellIndex, value);
+            }
+        }
+        return new GeneratedPuzzle(puzzle, solution, difficulty);
+    }
+
+    private void shuffle(final int[] array) {
+        for (int i = array.length - 1; i > 0; --i) {
+            final int j = random.nextInt(i + 1);
+            final int swapped = array[i];
+            array[i] = array[j];
+            array[j] = swapped;
+        }
+    }
+
+    // Generates puzzles in parallel, the i-th one from seed + i, so the result only depends on the seed
+    public static List<GeneratedPuzzle> generate(final int count, final Difficulty target,
+                                                 final int parallelism, final long seed) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final List<ForkJoinTask<GeneratedPuzzle>> tasks = new ArrayList<ForkJoinTask<GeneratedPuzzle>>(count);
+            for (int i = 0; i < count; ++i) {
+                tasks.add(pool.submit(createGenerateTask(target, seed + i)));
+            }
+            final List<GeneratedPuzzle> puzzles = new ArrayList<GeneratedPuzzle>(count);
+            for (final ForkJoinTask<GeneratedPuzzle> task : tasks) {
+                puzzles.add(task.join());
+            }
+            return puzzles;
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Callable<GeneratedPuzzle> createGenerateTask(final Difficulty target, final long seed) {
+        return new Callable<GeneratedPuzzle>() {
+            public GeneratedPuzzle call() {
+                return new PuzzleGenerator(seed).generate(target);
+            }
+        };
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 3) {
+            System.out.println("Usage: PuzzleGenerator <count> <EASY|MEDIUM|HARD|EXPERT|ANY> <puzzle file> [parallelism] [seed]");
+            System.exit(-1);
+        }
+        final int count = Integer.parseInt(args[0]);
+        final Difficulty target = "ANY".equals(args[1]) ? null : Difficulty.valueOf(args[1]);
+        final int parallelism = args.length < 4 ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(args[3]);
+        final long seed = args.length < 5 ? System.nanoTime() : Long.parseLong(args[4]);
+
+        final long start = System.nanoTime();
+        final List<GeneratedPuzzle> puzzles = generate(count, target, parallelism, seed);
+        final long elapsedNanos = System.nanoTime() - start;
+
+        final Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[2]), ASCII));
+        try {
+            final char[] line = new char[GridRenderer.COMPACT_LENGTH + 1];
+            for (final GeneratedPuzzle puzzle : puzzles) {
+                final int length = GridRenderer.writeCompact(puzzle.getPuzzle(), line, 0);
+                line[length] = '\n';
+                output.write(line, 0, length + 1);
+            }
+        }
+        finally {
+            output.close();
+        }
+        System.out.println(count + " puzzles generated in " + (elapsedNanos / 1000000) + "ms ("
+                + Math.round(count * 1e9 / elapsedNanos) + " puzzles/sec)");
+    }
+}
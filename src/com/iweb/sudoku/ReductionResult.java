@@ -0,0 +1,72 @@
+package com.iweb.sudoku;
+
+// What a TechniquePipeline got out of a grid: whether it is solved, how many values it
+// placed and which techniques it took. The hardest technique applied grades the puzzle.
+public class ReductionResult {
+    public enum Status {
+        // Every cell has a value
+        SOLVED,
+        // Cells are left empty, the search has to guess
+        STUCK,
+        // A cell or a value of a unit has no candidate left, the grid has no solution
+        CONTRADICTION
+    }
+
+    private final Status status;
+    private final DeductionTechnique[] techniques;
+    private final int[] applicationCounts;
+    private final int hardest;
+    private final int placementCount;
+
+    ReductionResult(final Status status, final DeductionTechnique[] techniques, final int[] applicationCounts,
+                    final int hardest, final int placementCount) {
+        this.status = status;
+        this.techniques = techniques;
+        this.applicationCounts = applicationCounts;
+        this.hardest = hardest;
+        this.placementCount = placementCount;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    public boolean isContradiction() {
+        return status == Status.CONTRADICTION;
+    }
+
+    // The last technique of the pipeline that made progress, null when singles were enough
+    public DeductionTechnique getHardestTechnique() {
+        return hardest < 0 ? null : techniques[hardest];
+    }
+
+    // How many passes of the technique ruled candidates out, 0 for a technique not in the pipeline
+    public int getApplicationCount(final DeductionTechnique technique) {
+        for (int i = 0; i < techniques.length; ++i) {
+            if (techniques[i] == technique) {
+                return applicationCounts[i];
+            }
+        }
+        return 0;
+    }
+
+    // Singles placed along the way
+    public int getPlacementCount() {
+        return placementCount;
+    }
+
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(status).append(", placements=").append(placementCount);
+        for (int i = 0; i < techniques.length; ++i) {
+            if (applicationCounts[i] > 0) {
+                builder.append(", ").append(techniques[i].getName()).append('=').append(applicationCounts[i]);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package com.iweb.sudoku;
+
+public enum SearchStrategy {
+    // Branch on the next empty cell, in row-major order
+    ROW_MAJOR,
+    // Branch on the empty cell having the fewest candidates left
+    MINIMUM_REMAINING_VALUES
+}
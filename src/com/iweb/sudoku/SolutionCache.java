@@ -0,0 +1,60 @@
+package com.iweb.sudoku;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Solutions by canonical puzzle form, the least recently used one being dropped once full.
+// Shared by the solving threads.
+public class SolutionCache {
+    private final int capacity;
+    private final Map<String, byte[]> solutions;
+    private long hits = 0;
+    private long misses = 0;
+
+    public SolutionCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, got " + capacity);
+        }
+        this.capacity = capacity;
+        solutions = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest) {
+                return size() > SolutionCache.this.capacity;
+            }
+        };
+    }
+
+    // Canonical values of the solution, or null when the form isn't cached
+    public synchronized byte[] get(final CanonicalForm form) {
+        final byte[] solution = solutions.get(form.getKey());
+        if (solution == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return solution;
+    }
+
+    public synchronized void put(final CanonicalForm form, final byte[] solution) {
+        solutions.put(form.getKey(), solution);
+    }
+
+    public synchronized int size() {
+        return solutions.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized String toString() {
+        return "size=" + solutions.size() + "/" + capacity + ", hits=" + hits + ", misses=" + misses;
+    }
+}
@@ -0,0 +1,17 @@
+package com.iweb.sudoku;
+
+public enum SolveOutcome {
+    // Every cell has a value
+    SOLVED,
+    // The whole search space was explored without finding a solution
+    UNSOLVABLE,
+    // The time or try budget ran out before the search ended
+    TIMED_OUT,
+    // The cancellation token was cancelled before the search ended
+    CANCELLED;
+
+    // True when the search stopped early, so nothing is known about the solutions left
+    public boolean isStopped() {
+        return this == TIMED_OUT || this == CANCELLED;
+    }
+}
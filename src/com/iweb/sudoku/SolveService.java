@@ -0,0 +1,347 @@
+package com.iweb.sudoku;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Long-lived solver on a loopback socket. Clients send one puzzle per line, in any format
+// read by GridParser, and get one line back per puzzle, in the same order: the solution in
+// the compact format, or '-' followed by the reason there is none (INVALID, DUPLICATE,
+// UNSOLVABLE, TIMED_OUT or ERROR).
+// Requests of every connection go through a bounded queue. Workers take them in batches and
+// solve them with their own Grid and Solver. When the queue is full, connections stop
+// reading their socket until there is room again, which pushes back on the clients.
+public class SolveService implements Closeable {
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+    private static final int DEFAULT_MAX_BATCH_SIZE = 32;
+    private static final long DEFAULT_TIME_LIMIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long METRICS_DUMP_PERIOD_MILLIS = 60000;
+
+    // Requests a connection may have in flight before it stops reading
+    private static final int PENDING_REQUESTS_PER_CONNECTION = 256;
+
+    // Queued behind the last request of a connection
+    private static final SolveRequest END_OF_REQUESTS = new SolveRequest(null);
+
+    private final int port;
+    private final int workerCount;
+    private final BlockingQueue<SolveRequest> requests;
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private long timeLimitNanos = DEFAULT_TIME_LIMIT_NANOS;
+    private SolverMetrics metrics;
+
+    private ServerSocket serverSocket;
+    // Threads still running, each one leaving the set when it ends
+    private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    private final List<Socket> sockets = new CopyOnWriteArrayList<Socket>();
+    private volatile boolean closed = false;
+
+    // Port 0 picks any free port, see getPort
+    public SolveService(final int port, final int workerCount, final int queueCapacity) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1, got " + workerCount);
+        }
+        this.port = port;
+        this.workerCount = workerCount;
+        requests = new ArrayBlockingQueue<SolveRequest>(queueCapacity);
+    }
+
+    public void setMaxBatchSize(final int maxBatchSize) {
+        checkNotStarted();
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, got " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // Time budget of a single puzzle
+    public void setTimeLimit(final long timeLimit, final TimeUnit unit) {
+        checkNotStarted();
+        if (timeLimit <= 0) {
+            throw new IllegalArgumentException("Time limit must be positive, got " + timeLimit);
+        }
+        timeLimitNanos = unit.toNanos(timeLimit);
+    }
+
+    // Workers then record their solves in the metrics
+    public void setMetrics(final SolverMetrics metrics) {
+        checkNotStarted();
+        this.metrics = metrics;
+    }
+
+    // Workers copy the settings when they start, later changes would be silently ignored
+    private void checkNotStarted() {
+        if (serverSocket != null) {
+            throw new IllegalStateException("The service is already started");
+        }
+    }
+
+    public void start() throws IOException {
+        checkNotStarted();
+        // Built before binding, so that nothing is left open when a worker can't be set up
+        final Worker[] workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; ++i) {
+            workers[i] = new Worker();
+        }
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        for (int i = 0; i < workerCount; ++i) {
+            startThread(workers[i], "solve-worker-" + i);
+        }
+        startThread(new Runnable() {
+            public void run() {
+                acceptConnections();
+            }
+        }, "solve-acceptor");
+    }
+
+    // Workers, acceptor and the reader and writer of every open connection
+    int getThreadCount() {
+        return threads.size();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void close() throws IOException {
+        closed = true;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (final Socket socket : sockets) {
+            socket.close();
+        }
+        for (final Thread thread : threads) {
+            thread.interrupt();
+        }
+    }
+
+    private void startThread(final Runnable task, final String name) {
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    task.run();
+                }
+                finally {
+                    threads.remove(Thread.currentThread());
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    private void acceptConnections() {
+        while (!closed) {
+            try {
+                final Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                final Connection connection = new Connection(socket);
+                startThread(connection.createReader(), "solve-reader-" + socket.getPort());
+                startThread(connection.createWriter(), "solve-writer-" + socket.getPort());
+            }
+            catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Solve service stopped accepting connections: " + e);
+                }
+                return;
+            }
+        }
+    }
+
+    // A puzzle line and, once a worker is done with it, the line to answer
+    private static class SolveRequest {
+        private final String puzzle;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private String response;
+
+        private SolveRequest(final String puzzle) {
+            this.puzzle = puzzle;
+        }
+
+        private void complete(final String response) {
+            this.response = response;
+            done.countDown();
+        }
+
+        private String awaitResponse() throws InterruptedException {
+            done.await();
+            return response;
+        }
+    }
+
+    // Reads requests into the shared queue and writes their responses in request order
+    private class Connection {
+        private final Socket socket;
+        private final BlockingQueue<SolveRequest> pending =
+                new ArrayBlockingQueue<SolveRequest>(PENDING_REQUESTS_PER_CONNECTION);
+
+        private Connection(final Socket socket) {
+            this.socket = socket;
+        }
+
+        private Runnable createReader() {
+            return new Runnable() {
+                public void run() {
+                    try {
+                        readRequests();
+                    }
+                    catch (IOException e) {
+                        // the client went away, its writer ends with END_OF_REQUESTS
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+        }
+
+        private Runnable createWriter() {
+            return new Runnable() {
+                public void run() {
+                    try {
+                        writeResponses();
+                    }
+                    catch (IOException e) {
+                        // the client went away
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    finally {
+                        closeSocket();
+                    }
+                }
+            };
+        }
+
+        private void readRequests() throws IOException, InterruptedException {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), ASCII));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final SolveRequest request = new SolveRequest(line);
+                    pending.put(request);
+                    requests.put(request); // blocks while the workers are behind
+                }
+            }
+            finally {
+                pending.put(END_OF_REQUESTS);
+            }
+        }
+
+        private void writeResponses() throws IOException, InterruptedException {
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), ASCII));
+            SolveRequest request;
+            while ((request = pending.take()) != END_OF_REQUESTS) {
+                writer.write(request.awaitResponse());
+                writer.write('\n');
+                if (pending.isEmpty()) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        }
+
+        private void closeSocket() {
+            sockets.remove(socket);
+            try {
+                socket.close();
+            }
+            catch (IOException e) {
+                // nothing left to tell the client
+            }
+        }
+    }
+
+    // Solves the queued requests a batch at a time, always with the same grid and solver
+    private class Worker implements Runnable {
+        private final Grid grid = new Grid();
+        private final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        private final List<SolveRequest> batch = new ArrayList<SolveRequest>(maxBatchSize);
+        private final StringBuilder solution = new StringBuilder(GridRenderer.COMPACT_LENGTH);
+
+        private Worker() {
+            solver.setConstraintPropagation(true);
+            solver.setTimeLimit(timeLimitNanos, TimeUnit.NANOSECONDS);
+            solver.setMetrics(metrics);
+        }
+
+        public void run() {
+            try {
+                while (!closed) {
+                    batch.add(requests.take());
+                    requests.drainTo(batch, maxBatchSize - 1);
+                    for (final SolveRequest request : batch) {
+                        request.complete(solveSafely(request.puzzle));
+                    }
+                    batch.clear();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // A failing puzzle must still be answered, or its connection would wait forever
+        private String solveSafely(final String puzzle) {
+            try {
+                return solve(puzzle);
+            }
+            catch (RuntimeException e) {
+                return "-ERROR " + e;
+            }
+        }
+
+        private String solve(final String puzzle) {
+            final ParseResult parseResult = GridParser.parse(puzzle, grid);
+            if (!parseResult.isValid()) {
+                return "-INVALID " + parseResult.getMessage();
+            }
+            final DuplicateValue duplicate = solver.findDuplicate();
+            if (duplicate != null) {
+                return "-DUPLICATE " + duplicate;
+            }
+            if (!solver.solve()) {
+                return "-" + solver.getStatistics().getOutcome();
+            }
+            solution.setLength(0);
+            return GridRenderer.appendCompact(grid, solution).toString();
+        }
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final int port = args.length < 1 ? 9099 : Integer.parseInt(args[0]);
+        final int workerCount = args.length < 2 ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(args[1]);
+        final int queueCapacity = args.length < 3 ? 1024 : Integer.parseInt(args[2]);
+
+        final SolveService service = new SolveService(port, workerCount, queueCapacity);
+        final SolverMetrics metrics = new SolverMetrics();
+        service.setMetrics(metrics);
+        service.start();
+        System.out.println("Solving puzzles on localhost:" + service.getPort() + " with " + workerCount + " workers");
+        while (true) {
+            Thread.sleep(METRICS_DUMP_PERIOD_MILLIS);
+            System.out.print(metrics.snapshot());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.iweb.sudoku;
+
+// Figures of a single solve. Each solve gets its own instance, filled by the
+// solving thread and left untouched once the solve returns.
+public class SolveStatistics {
+    SolveOutcome outcome;
+    long tries;
+    long backtracks;
+    long propagations;
+    int maxDepth;
+    long elapsedNanos;
+
+    // Null until the solve returns
+    public SolveOutcome getOutcome() {
+        return outcome;
+    }
+
+    public long getTries() {
+        return tries;
+    }
+
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    public long getPropagations() {
+        return propagations;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public String toString() {
+        return "outcome=" + outcome + ", tries=" + tries + ", backtracks=" + backtracks + ", propagations=" + propagations
+                + ", maxDepth=" + maxDepth + ", elapsed=" + (elapsedNanos / 1000) + "us";
+    }
+}
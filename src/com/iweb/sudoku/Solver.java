@@ -5,125 +5,505 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class Solver implements GridSolver {
+    // The clock is only read once every so many tries
+    private static final int DEADLINE_CHECK_MASK = 0x3FF;
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+    // What selectCellToGuess returns when there is no cell to guess
+    private static final int NO_EMPTY_CELL = -1;
+    private static final int VALUE_BRANCH = -2;
+    private static final int NO_UNIT = -1;
 
-public class Solver {
     private final Grid grid;
+    private final GridLayout layout;
     private final int gridSize;
     private final int totalCellCount;
-    
-    private static int totalTries = 0;
+    private final SearchStrategy strategy;
+    private ConstraintPropagator propagator;
+    private CancellationToken cancellationToken;
+    private long timeLimitNanos = NO_LIMIT;
+    private long tryLimit = NO_LIMIT;
+    private long deadline;
+    private SolveOutcome stopReason;
+    private SolverMetrics metrics;
+    private SolverMetrics.Recorder recorder;
+    private TechniquePipeline techniques;
+    // Candidates narrowed by the techniques, null without a pipeline
+    private GridCandidates candidates;
+    private GridSnapshot beforeReduction;
+    private ReductionResult reduction;
+
+    private SolveStatistics statistics = new SolveStatistics();
+    private int depth = 0;
+    private int solutionLimit = 1;
+    private int solutionCount = 0;
+
+    // Values met so far by findDuplicate, one bit per value
+    private final int[] seenInRows;
+    private final int[] seenInColumns;
+    private final int[] seenInSubGrids;
+
+    // Search stack, reused by every solve: guessed cell, candidates left to try
+    // and propagation mark taken right after the guess. A frame guessing the places
+    // of a value in a unit has that unit and value, its candidates being positions
+    // in the unit and its cell the one holding the value, -1 before the first guess.
+    private final int[] frameCells;
+    private final int[] frameCandidates;
+    private final int[] frameMarks;
+    private final int[] frameUnits;
+    private final int[] frameValues;
+
+    // Value branch found by selectCellToGuess, and candidates of the unit being scanned
+    private int branchUnit;
+    private int branchValue;
+    private int branchPositions;
+    private final int[] unitCandidates;
 
     public Solver(final Grid grid) {
-        gridSize = Grid.SIZE;
-        totalCellCount = gridSize * gridSize;
+        this(grid, SearchStrategy.ROW_MAJOR);
+    }
+
+    public Solver(final Grid grid, final SearchStrategy strategy) {
+        layout = grid.getLayout();
+        gridSize = layout.getSize();
+        totalCellCount = layout.getCellCount();
         this.grid = grid;
+        this.strategy = strategy;
+        seenInRows = new int[gridSize];
+        seenInColumns = new int[gridSize];
+        seenInSubGrids = new int[gridSize];
+        frameCells = new int[totalCellCount];
+        frameCandidates = new int[totalCellCount];
+        frameMarks = new int[totalCellCount];
+        frameUnits = new int[totalCellCount];
+        frameValues = new int[totalCellCount];
+        unitCandidates = new int[gridSize];
     }
     
     public boolean hasDuplicates() {
-        return hasDuplicatesInSameRow() || hasDuplicatesInSameColumn() || hasDuplicatesInSameSubGrid();
+        return findDuplicate() != null;
     }
-    
-    private boolean hasDuplicatesInSameSubGrid() {
-        for (int subGridIndex = 0; subGridIndex < 9; ++subGridIndex) {
-            final int startRow = (subGridIndex / 3) * 3;
-            final int startCol = (subGridIndex % 3) * 3;
-            final int endRow = startRow + 3;
-            final int endCol = startCol + 3;
-
-            final List<Integer> subGridRemainingNumbers = new ArrayList<Integer>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9));
-            for (int rowIndex = startRow; rowIndex < endRow; ++rowIndex) {
-                for (int colIndex = startCol; colIndex < endCol; ++colIndex) {
-                    final int cellIndex = rowIndex * 9 + colIndex;
-                    if (grid.cellHasValue(cellIndex)) {
-                        if (!subGridRemainingNumbers.remove(grid.getCell(cellIndex))) {
-                            return true;
-                        }
-                    }
-                }
+
+    // Single pass over the cells, returns the first value found twice in a unit or null
+    public DuplicateValue findDuplicate() {
+        final DuplicateValue duplicate = scanForDuplicate();
+        if (metrics != null) {
+            metrics.recordValidation(duplicate != null);
+        }
+        return duplicate;
+    }
+
+    private DuplicateValue scanForDuplicate() {
+        Arrays.fill(seenInRows, 0);
+        Arrays.fill(seenInColumns, 0);
+        Arrays.fill(seenInSubGrids, 0);
+        for (int cellIndex = 0; cellIndex < totalCellCount; ++cellIndex) {
+            final int value = grid.getCellValue(cellIndex);
+            if (value == Grid.EMPTY) {
+                continue; // with next cell
             }
+
+            final int bit = Grid.bitFor(value);
+            final int row = layout.rowOf(cellIndex);
+            final int col = layout.columnOf(cellIndex);
+            final int subGrid = layout.subGridOf(cellIndex);
+            if ((seenInRows[row] & bit) != 0) {
+                return DuplicateValue.of(DuplicateValue.UnitType.ROW, row, value);
+            }
+            if ((seenInColumns[col] & bit) != 0) {
+                return DuplicateValue.of(DuplicateValue.UnitType.COLUMN, col, value);
+            }
+            if ((seenInSubGrids[subGrid] & bit) != 0) {
+                return DuplicateValue.of(DuplicateValue.UnitType.SUB_GRID, subGrid, value);
+            }
+            seenInRows[row] |= bit;
+            seenInColumns[col] |= bit;
+            seenInSubGrids[subGrid] |= bit;
         }
-        return false;
+        return null;
+    }
+
+    public void setConstraintPropagation(final boolean enabled) {
+        propagator = enabled ? createPropagator() : null;
+    }
+
+    private ConstraintPropagator createPropagator() {
+        return candidates == null ? new ConstraintPropagator(grid) : new ConstraintPropagator(candidates);
+    }
+
+    // Every solve then starts with the pipeline's deductions, and only guesses among the candidates left
+    public void setTechniques(final TechniquePipeline techniques) {
+        this.techniques = techniques;
+        candidates = techniques == null ? null : new GridCandidates(grid);
+        beforeReduction = techniques == null ? null : new GridSnapshot(layout);
+        if (propagator != null) {
+            propagator = createPropagator();
+        }
+    }
+
+    // The deductions of the last solve, null without a pipeline
+    public ReductionResult getReduction() {
+        return reduction;
+    }
+
+    // The search gives up with a CANCELLED outcome once the token is cancelled
+    public void setCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    // Every solve and validation is then recorded in the metrics
+    public void setMetrics(final SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // The search gives up with a TIMED_OUT outcome once it ran for that long
+    public void setTimeLimit(final long timeLimit, final TimeUnit unit) {
+        if (timeLimit <= 0) {
+            throw new IllegalArgumentException("Time limit must be positive, got " + timeLimit);
+        }
+        timeLimitNanos = unit.toNanos(timeLimit);
+    }
+
+    // The search gives up with a TIMED_OUT outcome once it made that many tries
+    public void setTryLimit(final long tryLimit) {
+        if (tryLimit <= 0) {
+            throw new IllegalArgumentException("Try limit must be positive, got " + tryLimit);
+        }
+        this.tryLimit = tryLimit;
+    }
+
+    public boolean solve() {
+        return search(1) > 0;
+    }
+
+    // Counts the solutions, stopping at the limit, and leaves the grid unchanged.
+    // When the search is stopped early the count is a lower bound, see the statistics outcome.
+    public int countSolutions(final int limit) {
+        final GridSnapshot initialGrid = grid.snapshot();
+        final int count = search(limit);
+        if (count > 0) {
+            grid.restore(initialGrid);
+        }
+        return count;
+    }
+
+    public boolean hasUniqueSolution() {
+        return countSolutions(2) == 1 && statistics.outcome == SolveOutcome.SOLVED;
+    }
+
+    // Stops at the limit-th solution, leaving it in the grid, or restores the grid when there are less
+    private int search(final int limit) {
+        final long start = System.nanoTime();
+        statistics = new SolveStatistics();
+        depth = 0;
+        solutionLimit = limit;
+        solutionCount = 0;
+        stopReason = null;
+        recorder = metrics == null ? null : metrics.recorder();
+        deadline = timeLimitNanos == NO_LIMIT ? 0 : start + timeLimitNanos;
+        if (propagator != null) {
+            propagator.reset();
+        }
+        final boolean limitReached = reduce() && propagate() && searchGuesses();
+        if (!limitReached) {
+            undoPropagation(0);
+            if (techniques != null) {
+                grid.restore(beforeReduction);
+            }
+        }
+        if (propagator != null) {
+            statistics.propagations = propagator.getPlacementCount();
+        }
+        if (stopReason != null) {
+            statistics.outcome = stopReason;
+        } else {
+            statistics.outcome = solutionCount > 0 ? SolveOutcome.SOLVED : SolveOutcome.UNSOLVABLE;
+        }
+        statistics.elapsedNanos = System.nanoTime() - start;
+        if (metrics != null) {
+            metrics.recordSolve(statistics);
+        }
+        return solutionCount;
+    }
+
+    public SolveStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void enterGuess() {
+        statistics.tries++;
+        if (++depth > statistics.maxDepth) {
+            statistics.maxDepth = depth;
+        }
+    }
+
+    private void leaveFailedGuess() {
+        statistics.backtracks++;
+        depth--;
+    }
+
+    // Returns true when the search should stop there
+    private boolean reachedSolution() {
+        return ++solutionCount >= solutionLimit;
+    }
+
+    // Checked before every try: a volatile read, a compare and now and then a clock read
+    private boolean shouldStop() {
+        if (stopReason != null) {
+            return true;
+        }
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            stopReason = SolveOutcome.CANCELLED;
+        } else if (statistics.tries >= tryLimit) {
+            stopReason = SolveOutcome.TIMED_OUT;
+        } else if (deadline != 0 && (statistics.tries & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() - deadline >= 0) {
+            stopReason = SolveOutcome.TIMED_OUT;
+        }
+        return stopReason != null;
+    }
+
+    // Runs the pipeline, if any, keeping the grid as it was to put it back when the search fails.
+    // Its exclusions only last for this search, the grid may change before the next one.
+    private boolean reduce() {
+        reduction = null;
+        if (techniques == null) {
+            return true;
+        }
+        candidates.reset();
+        grid.snapshot(beforeReduction);
+        reduction = techniques.reduce(candidates);
+        return !reduction.isContradiction();
+    }
+
+    private boolean propagate() {
+        return propagator == null || propagator.propagate();
     }
 
-    private boolean hasDuplicatesInSameRow() {
-        for (int rowIndex = 0; rowIndex < gridSize; ++rowIndex) {
-            final List<Integer> rowRemainingNumbers = new ArrayList<Integer>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9));
-            for (int colIndex = 0; colIndex < gridSize; ++colIndex) {
-                final int cellIndex = rowIndex * 9 + colIndex;
-                if (grid.cellHasValue(cellIndex)) {
-                    if (!rowRemainingNumbers.remove(grid.getCell(cellIndex))) {
-                        return true;
+    private int propagationMark() {
+        return propagator == null ? 0 : propagator.mark();
+    }
+
+    private void undoPropagation(final int mark) {
+        if (propagator != null) {
+            propagator.undo(mark);
+        }
+    }
+
+    // Depth first search over an explicit stack of guesses, one frame per guessed cell or value.
+    // Returns true when the solution limit is reached, the last solution being left in the grid.
+    private boolean searchGuesses() {
+        int top = 0;
+        int cellIndex = selectCellToGuess(0);
+        while (true) {
+            boolean guessed = false;
+            if (cellIndex == NO_EMPTY_CELL) {
+                if (reachedSolution()) {
+                    return true;
+                }
+            } else {
+                final int alternatives;
+                if (cellIndex == VALUE_BRANCH) {
+                    alternatives = branchPositions;
+                    frameCells[top] = -1;
+                    frameUnits[top] = branchUnit;
+                    frameValues[top] = branchValue;
+                } else {
+                    alternatives = candidateMaskFor(grid, candidates, cellIndex);
+                    frameCells[top] = cellIndex;
+                    frameUnits[top] = NO_UNIT;
+                    // The places of a value are another distribution, only cells are recorded
+                    if (recorder != null) {
+                        recorder.recordCandidateCount(Integer.bitCount(alternatives));
+                    }
+                }
+                if (alternatives != 0) {
+                    frameCandidates[top] = alternatives;
+                    guessed = guessNextCandidate(top++);
+                    if (!guessed) {
+                        top--;
                     }
                 }
             }
+
+            while (!guessed) {
+                if (top == 0) {
+                    return false;
+                }
+                if (stopReason != null) {
+                    abandonGuesses(top);
+                    return false;
+                }
+                final int frame = top - 1;
+                leaveFailedGuess();
+                undoPropagation(frameMarks[frame]);
+                guessed = guessNextCandidate(frame);
+                if (!guessed) {
+                    top--;
+                }
+            }
+
+            cellIndex = selectCellToGuess(frameCells[top - 1] + 1);
         }
-        return false;
     }
 
-    private boolean hasDuplicatesInSameColumn() {
-        for (int colIndex = 0; colIndex < gridSize; ++colIndex) {
-            final List<Integer> colRemainingNumbers = new ArrayList<Integer>(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9));
-            for (int rowIndex = 0; rowIndex < gridSize; ++rowIndex) {
-                final int cellIndex = rowIndex * 9 + colIndex;
-                if (grid.cellHasValue(cellIndex)) {
-                    if (!colRemainingNumbers.remove(grid.getCell(cellIndex))) {
-                        return true;
-                    }
+    // Makes the next consistent guess of the frame, or clears its cell when there is none left
+    private boolean guessNextCandidate(final int frame) {
+        final int unitIndex = frameUnits[frame];
+        while (frameCandidates[frame] != 0 && !shouldStop()) {
+            final int bit = frameCandidates[frame] & -frameCandidates[frame];
+            frameCandidates[frame] ^= bit;
+            if (unitIndex == NO_UNIT) {
+                grid.setCell(frameCells[frame], Grid.valueOf(bit));
+            } else {
+                if (frameCells[frame] >= 0) {
+                    grid.clearCell(frameCells[frame]);
                 }
+                frameCells[frame] = layout.units[unitIndex][Integer.numberOfTrailingZeros(bit)];
+                grid.setCell(frameCells[frame], frameValues[frame]);
+            }
+            frameMarks[frame] = propagationMark();
+            enterGuess();
+
+            if (propagate()) {
+                return true;
             }
+            leaveFailedGuess();
+            undoPropagation(frameMarks[frame]);
+        }
+        if (frameCells[frame] >= 0) {
+            grid.clearCell(frameCells[frame]);
         }
         return false;
     }
 
-    public boolean solve() {
-        totalTries = 0;
-        final boolean success = internalSolve(0);
-        System.out.println("Total tries : " + totalTries);
-        return success;
+    // Clears the guesses still on the stack, and what they propagated, without counting backtracks
+    private void abandonGuesses(final int top) {
+        for (int frame = top - 1; frame >= 0; --frame) {
+            undoPropagation(frameMarks[frame]);
+            grid.clearCell(frameCells[frame]);
+        }
     }
 
-    public boolean internalSolve(final int startIndex) {
+    // Returns the next cell to guess, VALUE_BRANCH when the places of a value in a unit
+    // should be guessed instead, or NO_EMPTY_CELL when every cell has a value.
+    // Cells before startIndex are known to have a value in row-major order.
+    private int selectCellToGuess(final int startIndex) {
+        if (strategy == SearchStrategy.MINIMUM_REMAINING_VALUES) {
+            return selectFewestAlternatives();
+        }
         for (int cellIndex = startIndex; cellIndex < totalCellCount; ++cellIndex) {
-            if (grid.cellHasValue(cellIndex)) {
-                continue; // with next cell
+            if (!grid.cellHasValue(cellIndex)) {
+                return cellIndex;
             }
-            
-            final List<Integer> candidates = grid.getCandidatesFor(cellIndex);
-            for (final Integer candidate : candidates) {
-                totalTries++;
-                grid.setCell(cellIndex, candidate);
-
-                final boolean candidateStillAvailableForNextCell = internalSolve(cellIndex + 1);
-                if (candidateStillAvailableForNextCell) {
-                    return true;
+        }
+        return NO_EMPTY_CELL;
+    }
+
+    // The empty cell with the fewest candidates, unless a value missing from a unit has fewer
+    // places left there: guessing among those places then branches less. A value without any
+    // place is a dead end the cells alone don't show before propagation.
+    private int selectFewestAlternatives() {
+        final int cellIndex = findCellWithFewestCandidates(grid, layout, candidates);
+        if (cellIndex < 0) {
+            return NO_EMPTY_CELL;
+        }
+        int fewest = Integer.bitCount(candidateMaskFor(grid, candidates, cellIndex));
+        if (fewest <= 1) {
+            return cellIndex;
+        }
+
+        branchUnit = NO_UNIT;
+        final int[][] units = layout.units;
+        for (int unitIndex = 0; unitIndex < units.length; ++unitIndex) {
+            final int[] unit = units[unitIndex];
+            int missing = layout.allCandidates;
+            for (int position = 0; position < gridSize; ++position) {
+                final int value = grid.getCellValue(unit[position]);
+                if (value == Grid.EMPTY) {
+                    unitCandidates[position] = candidateMaskFor(grid, candidates, unit[position]);
+                } else {
+                    unitCandidates[position] = 0;
+                    missing &= ~Grid.bitFor(value);
                 }
             }
 
-            if (candidates.size() > 0) {
-                grid.clearCell(cellIndex);
+            for (; missing != 0; missing &= missing - 1) {
+                final int bit = missing & -missing;
+                int positions = 0;
+                for (int position = 0; position < gridSize; ++position) {
+                    if ((unitCandidates[position] & bit) != 0) {
+                        positions |= 1 << position;
+                    }
+                }
+                final int placeCount = Integer.bitCount(positions);
+                if (placeCount < fewest) {
+                    fewest = placeCount;
+                    branchUnit = unitIndex;
+                    branchValue = Grid.valueOf(bit);
+                    branchPositions = positions;
+                    if (placeCount <= 1) {
+                        return VALUE_BRANCH;
+                    }
+                }
             }
+        }
+        return branchUnit == NO_UNIT ? cellIndex : VALUE_BRANCH;
+    }
+
+    // Returns the empty cell with the fewest candidates, or -1 when every cell has a value
+    static int findCellWithFewestCandidates(final Grid grid) {
+        return findCellWithFewestCandidates(grid, grid.getLayout(), null);
+    }
+
+    private static int candidateMaskFor(final Grid grid, final GridCandidates candidates, final int cellIndex) {
+        return candidates == null ? grid.getCandidateMaskFor(cellIndex) : candidates.getMaskFor(cellIndex);
+    }
 
-            return false;
+    private static int findCellWithFewestCandidates(final Grid grid, final GridLayout layout,
+                                                    final GridCandidates candidates) {
+        int bestCellIndex = -1;
+        int bestCandidateCount = layout.getSize() + 1;
+        final int cellCount = layout.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            if (grid.cellHasValue(cellIndex)) {
+                continue; // with next cell
+            }
+
+            final int candidateCount = Integer.bitCount(candidateMaskFor(grid, candidates, cellIndex));
+            if (candidateCount < bestCandidateCount) {
+                bestCellIndex = cellIndex;
+                bestCandidateCount = candidateCount;
+                if (candidateCount <= 1) {
+                    break; // can't do better than a dead end or a forced value
+                }
+            }
         }
-        return true;
+        return bestCellIndex;
     }
 
     public static void main(final String[] args) throws IOException {
         final String filePath = args.length < 1 ? "./Sudoku-SolveMe.txt" : args[0];
+        final SearchStrategy strategy = args.length < 2 ? SearchStrategy.ROW_MAJOR : SearchStrategy.valueOf(args[1]);
+        final int boxSize = args.length < 4 ? 3 : Integer.parseInt(args[3]);
 
-        final Grid grid = new Grid();
-        grid.loadGridFromString(readFileToString(filePath));
+        final Grid grid = new Grid(boxSize);
+        final ParseResult parseResult = loadGridFromFile(filePath, grid);
+        if (!parseResult.isValid()) {
+            System.out.println(filePath + " doesn't hold a sudoku: " + parseResult);
+            System.exit(-1);
+        }
         System.out.println(filePath + " will be solved...");
         System.out.println(grid);
 
-        final Solver solver = new Solver(grid);
+        final Solver solver = new Solver(grid, strategy);
+        solver.setConstraintPropagation(args.length >= 3 && Boolean.parseBoolean(args[2]));
         
-        if (solver.hasDuplicates()) {
-            System.out.println("Sudoku has duplicate numbers in one or more row, column or subgrid.");
+        final DuplicateValue duplicate = solver.findDuplicate();
+        if (duplicate != null) {
+            System.out.println("Sudoku has duplicate numbers in one or more row, column or subgrid. " + duplicate);
             System.exit(-1);
         }
         if (!solver.solve()) {
@@ -132,16 +512,17 @@ public class Solver {
         }
         System.out.println(filePath + " solved :");
         System.out.println(grid);
+        System.out.println(solver.getStatistics());
     }
 
-    private static String readFileToString(final String path) throws IOException {
+    private static ParseResult loadGridFromFile(final String path, final Grid grid) throws IOException {
         final FileInputStream stream = new FileInputStream(new File(path));
         try {
             final FileChannel fc = stream.getChannel();
             final MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
 
-            /* Instead of using default, pass in a decoder. */
-            return Charset.defaultCharset().decode(bb).toString();
+            /* Parsed straight from the mapped bytes, without decoding the file to a String. */
+            return GridParser.parse(bb, grid);
         }
         finally {
             stream.close();
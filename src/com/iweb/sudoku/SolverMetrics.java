@@ -0,0 +1,148 @@
+package com.iweb.sudoku;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Figures of every solve and validation made by the solvers it is given to.
+// Counters are striped LongAdders. Latencies and candidate counts go to a recorder
+// per thread, looked up once per solve, and are only merged when a snapshot is taken,
+// so solving threads never write to a shared cache line. The recorder of a thread that
+// ended is folded into the retired totals, pools retiring their idle workers would
+// otherwise leave one recorder per thread they ever started.
+public class SolverMetrics {
+    private static final int MAX_CANDIDATE_COUNT = GridLayout.MAX_BOX_SIZE * GridLayout.MAX_BOX_SIZE;
+
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder unsolvable = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder tries = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder propagations = new LongAdder();
+    private final LongAdder solveNanos = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder lockstepSolved = new LongAdder();
+    private final LongAdder lockstepUnsolvable = new LongAdder();
+    private final LongAdder lockstepFallbacks = new LongAdder();
+
+    // Recorders of the threads still alive, and the totals of those that ended, guarded by this
+    private final List<Recorder> recorders = new ArrayList<Recorder>();
+    private final long[] retiredLatencyCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    private final long[] retiredCandidateCounts = new long[MAX_CANDIDATE_COUNT + 1];
+    private final ThreadLocal<Recorder> threadRecorder = new ThreadLocal<Recorder>() {
+        protected Recorder initialValue() {
+            return register(new Recorder(Thread.currentThread()));
+        }
+    };
+
+    // What a single thread recorded, written by that thread only
+    static class Recorder {
+        private final Thread owner;
+        private final LatencyHistogram solveLatencies = new LatencyHistogram();
+        private final AtomicLongArray candidateCounts = new AtomicLongArray(MAX_CANDIDATE_COUNT + 1);
+
+        private Recorder(final Thread owner) {
+            this.owner = owner;
+        }
+
+        private void addTo(final long[] latencyCounts, final long[] candidateCounts) {
+            solveLatencies.addTo(latencyCounts);
+            for (int count = 0; count <= MAX_CANDIDATE_COUNT; ++count) {
+                candidateCounts[count] += this.candidateCounts.get(count);
+            }
+        }
+
+        // Candidates of a cell the search branches on
+        void recordCandidateCount(final int candidateCount) {
+            candidateCounts.lazySet(candidateCount, candidateCounts.get(candidateCount) + 1);
+        }
+    }
+
+    Recorder recorder() {
+        return threadRecorder.get();
+    }
+
+    private synchronized Recorder register(final Recorder recorder) {
+        retireEndedThreads();
+        recorders.add(recorder);
+        return recorder;
+    }
+
+    // A thread seen ended has made all its writes visible, and won't make any more
+    private void retireEndedThreads() {
+        for (final Iterator<Recorder> iterator = recorders.iterator(); iterator.hasNext(); ) {
+            final Recorder recorder = iterator.next();
+            if (!recorder.owner.isAlive()) {
+                recorder.addTo(retiredLatencyCounts, retiredCandidateCounts);
+                iterator.remove();
+            }
+        }
+    }
+
+    // Threads that recorded and are still alive
+    synchronized int getRecorderCount() {
+        return recorders.size();
+    }
+
+    public void recordSolve(final SolveStatistics statistics) {
+        solves.increment();
+        final SolveOutcome outcome = statistics.getOutcome();
+        if (outcome == SolveOutcome.SOLVED) {
+            solved.increment();
+        } else if (outcome == SolveOutcome.UNSOLVABLE) {
+            unsolvable.increment();
+        } else if (outcome == SolveOutcome.TIMED_OUT) {
+            timedOut.increment();
+        } else if (outcome == SolveOutcome.CANCELLED) {
+            cancelled.increment();
+        }
+        tries.add(statistics.getTries());
+        backtracks.add(statistics.getBacktracks());
+        propagations.add(statistics.getPropagations());
+        solveNanos.add(statistics.getElapsedNanos());
+        recorder().solveLatencies.record(statistics.getElapsedNanos());
+    }
+
+    public void recordValidation(final boolean duplicateFound) {
+        validations.increment();
+        if (duplicateFound) {
+            duplicates.increment();
+        }
+    }
+
+    // Outcome of the puzzles of a lockstep chunk: solved by singles alone, found without
+    // solution, or left to the scalar solver, whose solves are recorded as any other
+    public void recordLockstepChunk(final int solvedCount, final int unsolvableCount, final int fallbackCount) {
+        lockstepSolved.add(solvedCount);
+        lockstepUnsolvable.add(unsolvableCount);
+        lockstepFallbacks.add(fallbackCount);
+    }
+
+    public MetricsSnapshot snapshot() {
+        final long[] latencyCounts;
+        final long[] candidateCounts;
+        synchronized (this) {
+            retireEndedThreads();
+            latencyCounts = retiredLatencyCounts.clone();
+            candidateCounts = retiredCandidateCounts.clone();
+            for (final Recorder recorder : recorders) {
+                recorder.addTo(latencyCounts, candidateCounts);
+            }
+        }
+        final long[] counters = {
+                solves.sum(), solved.sum(), unsolvable.sum(), timedOut.sum(), cancelled.sum(),
+                tries.sum(), backtracks.sum(), propagations.sum(), solveNanos.sum(),
+                validations.sum(), duplicates.sum(),
+                lockstepSolved.sum(), lockstepUnsolvable.sum(), lockstepFallbacks.sum()
+        };
+        return new MetricsSnapshot(System.nanoTime() - startNanos, counters,
+                new HistogramSnapshot(latencyCounts), candidateCounts);
+    }
+}
@@ -0,0 +1,81 @@
+package com.iweb.sudoku;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Logical deductions run on a grid before any guess. Singles are propagated, then the
+// techniques are tried in order, easiest first, and the first one ruling a candidate out
+// sends the pipeline back to the singles. It stops once the grid is full, contradicts
+// itself or no technique makes progress. The candidates ruled out are kept in the given
+// GridCandidates, so a search propagating over them only tries what is left.
+// A pipeline holds no state of its own, so solvers running on many threads may share one.
+public class TechniquePipeline {
+    private final DeductionTechnique[] techniques;
+
+    public TechniquePipeline(final List<DeductionTechnique> techniques) {
+        this.techniques = techniques.toArray(new DeductionTechnique[techniques.size()]);
+    }
+
+    // Locked candidates, naked and hidden pairs, naked and hidden triples, then X-Wing
+    public static TechniquePipeline standard() {
+        final List<DeductionTechnique> techniques = new ArrayList<DeductionTechnique>();
+        techniques.add(new LockedCandidates());
+        techniques.add(new NakedSubset(2));
+        techniques.add(new HiddenSubset(2));
+        techniques.add(new NakedSubset(3));
+        techniques.add(new HiddenSubset(3));
+        techniques.add(new XWing());
+        return new TechniquePipeline(techniques);
+    }
+
+    public List<DeductionTechnique> getTechniques() {
+        return Arrays.asList(techniques);
+    }
+
+    // Values placed are left in the grid, even when the result is a contradiction
+    public ReductionResult reduce(final Grid grid) {
+        return reduce(new GridCandidates(grid));
+    }
+
+    // Same, keeping the candidates ruled out in the given ones
+    public ReductionResult reduce(final GridCandidates candidates) {
+        final Grid grid = candidates.getGrid();
+        final ConstraintPropagator propagator = new ConstraintPropagator(candidates);
+        final int[] applicationCounts = new int[techniques.length];
+        int hardest = -1;
+        while (true) {
+            if (!propagator.propagate()) {
+                return new ReductionResult(ReductionResult.Status.CONTRADICTION, techniques, applicationCounts,
+                        hardest, propagator.getPlacementCount());
+            }
+            if (isFull(grid)) {
+                return new ReductionResult(ReductionResult.Status.SOLVED, techniques, applicationCounts,
+                        hardest, propagator.getPlacementCount());
+            }
+
+            int applied = -1;
+            for (int i = 0; i < techniques.length && applied < 0; ++i) {
+                if (techniques[i].apply(candidates)) {
+                    applied = i;
+                }
+            }
+            if (applied < 0) {
+                return new ReductionResult(ReductionResult.Status.STUCK, techniques, applicationCounts,
+                        hardest, propagator.getPlacementCount());
+            }
+            applicationCounts[applied]++;
+            hardest = Math.max(hardest, applied);
+        }
+    }
+
+    private static boolean isFull(final Grid grid) {
+        final int cellCount = grid.getCellCount();
+        for (int cellIndex = 0; cellIndex < cellCount; ++cellIndex) {
+            if (!grid.cellHasValue(cellIndex)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
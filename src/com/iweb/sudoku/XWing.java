@@ -0,0 +1,59 @@
+package com.iweb.sudoku;
+
+// When a value can only go in the same two columns of two rows, one of each row's cells takes
+// it in each column, so it is ruled out of the rest of both columns. Same with rows and columns swapped.
+public class XWing extends DeductionTechnique {
+    public XWing() {
+        super("X-Wing");
+    }
+
+    public boolean apply(final GridCandidates candidates) {
+        final GridLayout layout = candidates.getGrid().getLayout();
+        final int[] positions = new int[layout.size];
+        final int[] masks = readCandidates(candidates);
+        boolean progress = false;
+        for (int bit = 1; bit <= layout.allCandidates; bit <<= 1) {
+            progress |= apply(candidates, masks, bit, 0, layout.size, positions);
+            progress |= apply(candidates, masks, bit, layout.size, 0, positions);
+        }
+        return progress;
+    }
+
+    // Base lines start at units[baseOffset], the cover lines crossing them at units[coverOffset].
+    // The position of a cell in a base line is the index of its cover line, and the other way round.
+    private static boolean apply(final GridCandidates candidates, final int[] masks, final int bit,
+                                 final int baseOffset, final int coverOffset, final int[] positions) {
+        final int[][] units = candidates.getGrid().getLayout().units;
+        final int size = positions.length;
+        for (int line = 0; line < size; ++line) {
+            final int[] unit = units[baseOffset + line];
+            int linePositions = 0;
+            for (int position = 0; position < size; ++position) {
+                if ((masks[unit[position]] & bit) != 0) {
+                    linePositions |= 1 << position;
+                }
+            }
+            positions[line] = linePositions;
+        }
+
+        boolean progress = false;
+        for (int first = 0; first < size; ++first) {
+            if (Integer.bitCount(positions[first]) != 2) {
+                continue; // with next line
+            }
+            for (int second = first + 1; second < size; ++second) {
+                if (positions[second] != positions[first]) {
+                    continue; // with next line
+                }
+                final int keptPositions = (1 << first) | (1 << second);
+                int covers = positions[first];
+                while (covers != 0) {
+                    final int cover = Integer.numberOfTrailingZeros(covers);
+                    covers &= covers - 1;
+                    progress |= excludeFromUnit(candidates, units[coverOffset + cover], keptPositions, bit);
+                }
+            }
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,193 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+@RunWith(JUnit4ClassRunner.class)
+public class BatchSolverTest {
+    private static final String ADVANCED = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+    private static final String VERY_HARD = ".......1.4.........2...........5.4.7..8...3....1.9....3..4..2...5.1........8.6...";
+    private static final String INKALA = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String NO_SOLUTION = "12345678.........9...............................................................";
+
+    @Test
+    public void testThatSolutionsAreWrittenInInputOrder() throws IOException {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 200; ++i) {
+            input.append(i % 2 == 0 ? ADVANCED : INKALA).append('\n');
+        }
+        input.append(VERY_HARD).append('\n');
+
+        final StringWriter output = new StringWriter();
+        final BatchResult result = new BatchSolver(4).solve(new StringReader(input.toString()), output);
+
+        assertEquals(201, result.getPuzzleCount());
+        assertEquals(201, result.getSolvedCount());
+        final String[] lines = output.toString().split("\n");
+        assertEquals(201, lines.length);
+        for (int i = 0; i < 200; ++i) {
+            assertEquals(BatchSolver.solveToString(i % 2 == 0 ? ADVANCED : INKALA), lines[i]);
+        }
+        assertEquals(BatchSolver.solveToString(VERY_HARD), lines[200]);
+    }
+
+    @Test
+    public void testThatRepeatedPuzzlesAreSolvedOnceWithACache() throws IOException {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 50; ++i) {
+            input.append(i % 2 == 0 ? ADVANCED : INKALA).append('\n');
+        }
+
+        final StringWriter output = new StringWriter();
+        final BatchSolver batchSolver = new BatchSolver(1);
+        final SolutionCache cache = new SolutionCache(100);
+        batchSolver.setSolutionCache(cache);
+        final BatchResult result = batchSolver.solve(new StringReader(input.toString()), output);
+
+        assertEquals(50, result.getSolvedCount());
+        assertEquals(2, cache.getMisses());
+        assertEquals(48, cache.getHits());
+        final String[] lines = output.toString().split("\n");
+        for (int i = 0; i < 50; ++i) {
+            assertEquals(BatchSolver.solveToString(i % 2 == 0 ? ADVANCED : INKALA), lines[i]);
+        }
+    }
+
+    @Test
+    public void testThatInvalidAndUnsolvablePuzzlesGiveAnEmptyLine() throws IOException {
+        final String input = ADVANCED + "\n" + "1..4\n" + "\n" + NO_SOLUTION + "\n" + ADVANCED + "\n";
+
+        final StringWriter output = new StringWriter();
+        final BatchResult result = new BatchSolver(2).solve(new StringReader(input), output);
+
+        assertEquals(4, result.getPuzzleCount());
+        assertEquals(2, result.getSolvedCount());
+        final String[] lines = output.toString().split("\n", -1);
+        assertEquals(81, lines[0].length());
+        assertEquals("", lines[1]);
+        assertEquals("", lines[2]);
+        assertEquals(lines[0], lines[3]);
+    }
+
+    @Test
+    public void testThatAMappedFileIsSolvedLikeAReader() throws IOException {
+        final String input = ADVANCED + "\n" + "1..4\n" + INKALA + "\n" + NO_SOLUTION + "\n" + VERY_HARD;
+        final File file = File.createTempFile("puzzles", ".txt");
+        try {
+            final FileOutputStream stream = new FileOutputStream(file);
+            try {
+                stream.write(input.getBytes("US-ASCII"));
+            }
+            finally {
+                stream.close();
+            }
+
+            final StringWriter readerOutput = new StringWriter();
+            new BatchSolver(2).solve(new StringReader(input), readerOutput);
+
+            final StringWriter mappedOutput = new StringWriter();
+            final MappedPuzzleReader reader = new MappedPuzzleReader(file, 128);
+            final BatchResult result;
+            try {
+                result = new BatchSolver(2).solve(reader, mappedOutput);
+            }
+            finally {
+                reader.close();
+            }
+
+            assertEquals(5, result.getPuzzleCount());
+            assertEquals(3, result.getSolvedCount());
+            assertEquals(readerOutput.toString(), mappedOutput.toString());
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testThatASolutionKeepsTheGivens() {
+        final String solution = BatchSolver.solveToString(ADVANCED);
+        assertEquals(81, solution.length());
+        for (int i = 0; i < 81; ++i) {
+            if (ADVANCED.charAt(i) != '.') {
+                assertEquals(ADVANCED.charAt(i), solution.charAt(i));
+            }
+        }
+    }
+
+    @Test
+    public void testThatLockstepSolvingWritesTheSameLines() throws IOException {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 600; ++i) {
+            if (i % 100 == 7) {
+                input.append("1..4\n");
+            } else if (i % 100 == 8) {
+                input.append(NO_SOLUTION).append('\n');
+            } else {
+                input.append(new PuzzleGenerator(i).generate().getPuzzle().toCompactString()).append('\n');
+            }
+        }
+
+        final StringWriter scalarOutput = new StringWriter();
+        final BatchResult scalarResult = new BatchSolver(2).solve(new StringReader(input.toString()), scalarOutput);
+
+        final BatchSolver batchSolver = new BatchSolver(2);
+        batchSolver.setLockstep(true);
+        final StringWriter lockstepOutput = new StringWriter();
+        final BatchResult result = batchSolver.solve(new StringReader(input.toString()), lockstepOutput);
+
+        assertEquals(600, result.getPuzzleCount());
+        assertEquals(588, result.getSolvedCount());
+        assertEquals(scalarResult.getSolvedCount(), result.getSolvedCount());
+        assertEquals(scalarOutput.toString(), lockstepOutput.toString());
+    }
+
+    @Test
+    public void testThatAMappedFileIsSolvedInLockstepLikeAReader() throws IOException {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 300; ++i) {
+            input.append(i == 3 ? "1..4" : new PuzzleGenerator(i).generate().getPuzzle().toCompactString()).append('\n');
+        }
+        final File file = File.createTempFile("puzzles", ".txt");
+        try {
+            final FileOutputStream stream = new FileOutputStream(file);
+            try {
+                stream.write(input.toString().getBytes("US-ASCII"));
+            }
+            finally {
+                stream.close();
+            }
+
+            final StringWriter readerOutput = new StringWriter();
+            new BatchSolver(2).solve(new StringReader(input.toString()), readerOutput);
+
+            final BatchSolver batchSolver = new BatchSolver(2);
+            batchSolver.setLockstep(true);
+            final StringWriter mappedOutput = new StringWriter();
+            final MappedPuzzleReader reader = new MappedPuzzleReader(file, 4096);
+            final BatchResult result;
+            try {
+                result = batchSolver.solve(reader, mappedOutput);
+            }
+            finally {
+                reader.close();
+            }
+
+            assertEquals(300, result.getPuzzleCount());
+            assertEquals(299, result.getSolvedCount());
+            assertEquals(readerOutput.toString(), mappedOutput.toString());
+        }
+        finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+
+@RunWith(JUnit4ClassRunner.class)
+public class BinaryGridConverterTest {
+    private static final String FIRST = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+    private static final String SECOND = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("puzzles", ".txt");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void testThatPackedGridsAreUnpackedOnePerLine() throws IOException {
+        write(FIRST + "\n\n" + SECOND + "\n");
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        assertEquals(2, pack(archive));
+
+        final StringWriter text = new StringWriter();
+        final BinaryGridReader reader = new BinaryGridReader(Channels.newChannel(new ByteArrayInputStream(archive.toByteArray())));
+        try {
+            assertEquals(2, BinaryGridConverter.unpack(reader, text));
+        }
+        finally {
+            reader.close();
+        }
+        assertEquals(FIRST + "\n" + SECOND + "\n", text.toString());
+    }
+
+    @Test
+    public void testThatBoxedGridsArePackedAndUnpackedBoxed() throws IOException {
+        final String boxes = GridFixtures.createGrid(FIRST) + "\n\n" + GridFixtures.createGrid(SECOND) + "\n\n";
+        write(boxes);
+        final ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        assertEquals(2, pack(archive, BinaryGridConverter.TextFormat.BOX));
+
+        final StringWriter text = new StringWriter();
+        final BinaryGridReader reader = new BinaryGridReader(Channels.newChannel(new ByteArrayInputStream(archive.toByteArray())));
+        try {
+            assertEquals(2, BinaryGridConverter.unpack(reader, text, BinaryGridConverter.TextFormat.BOX));
+        }
+        finally {
+            reader.close();
+        }
+        assertEquals(boxes, text.toString());
+    }
+
+    @Test
+    public void testThatAnInvalidLineFailsThePack() throws IOException {
+        write(FIRST + "\n1234\n" + SECOND + "\n");
+        try {
+            pack(new ByteArrayOutputStream());
+            fail("An invalid line must not be skipped");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Line 2 "));
+        }
+    }
+
+    private int pack(final ByteArrayOutputStream archive) throws IOException {
+        return pack(archive, BinaryGridConverter.TextFormat.COMPACT);
+    }
+
+    private int pack(final ByteArrayOutputStream archive, final BinaryGridConverter.TextFormat format)
+            throws IOException {
+        final MappedPuzzleReader input = new MappedPuzzleReader(file);
+        try {
+            final BinaryGridWriter output = new BinaryGridWriter(Channels.newChannel(archive));
+            try {
+                return BinaryGridConverter.pack(input, output, format);
+            }
+            finally {
+                output.close();
+            }
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    private void write(final String content) throws IOException {
+        final FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(content.getBytes("US-ASCII"));
+        }
+        finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+@RunWith(JUnit4ClassRunner.class)
+public class BinaryGridFormatTest {
+    private static final String SOLVED = "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+    private static final String PUZZLE = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+
+    @Test
+    public void testThatAGridIsPackedIn41BytesAndDecodedBack() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(PUZZLE);
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        BinaryGridFormat.encode(grid, buffer);
+        assertEquals(41, buffer.position());
+        assertEquals(0x00, buffer.get(0) & 0xFF);
+        assertEquals(0x01, buffer.get(1) & 0xFF);
+
+        buffer.flip();
+        final Grid decoded = new Grid();
+        BinaryGridFormat.decode(buffer, decoded);
+        assertEquals(PUZZLE, decoded.toCompactString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatAValueAbove9IsRejected() {
+        final ByteBuffer buffer = ByteBuffer.allocate(BinaryGridFormat.GRID_BYTES);
+        buffer.put(3, (byte) 0x1A);
+        BinaryGridFormat.decode(buffer, new Grid());
+    }
+
+    @Test
+    public void testThatGridsWrittenToAChannelAreReadBackInOrder() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final BinaryGridWriter writer = new BinaryGridWriter(Channels.newChannel(bytes));
+        final Grid grid = new Grid();
+        for (int i = 0; i < 5000; ++i) {
+            grid.loadGridFromString(i % 2 == 0 ? PUZZLE : SOLVED);
+            writer.write(grid);
+        }
+        writer.close();
+        assertEquals(4 + 5000 * 41, bytes.size());
+
+        final BinaryGridReader reader = new BinaryGridReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+        final Grid read = new Grid();
+        for (int i = 0; i < 5000; ++i) {
+            assertTrue(reader.next(read));
+            assertEquals(i % 2 == 0 ? PUZZLE : SOLVED, read.toCompactString());
+        }
+        assertFalse(reader.next(read));
+        reader.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testThatAnythingElseThanAnArchiveIsRejected() throws IOException {
+        new BinaryGridReader(Channels.newChannel(new ByteArrayInputStream(PUZZLE.getBytes("US-ASCII"))));
+    }
+
+    @Test(expected = IOException.class)
+    public void testThatATruncatedArchiveIsReported() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final BinaryGridWriter writer = new BinaryGridWriter(Channels.newChannel(bytes));
+        final Grid grid = new Grid();
+        grid.loadGridFromString(SOLVED);
+        writer.write(grid);
+        writer.close();
+
+        final byte[] truncated = new byte[bytes.size() - 1];
+        System.arraycopy(bytes.toByteArray(), 0, truncated, 0, truncated.length);
+        new BinaryGridReader(Channels.newChannel(new ByteArrayInputStream(truncated))).next(grid);
+    }
+}
@@ -0,0 +1,67 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class CachingSolverTest {
+    private static final String NO_SOLUTION = "12345678.........9...............................................................";
+
+    private static String solveWithoutCache(final Grid puzzle) {
+        final Grid grid = puzzle.copy();
+        assertTrue(new Solver(grid).solve());
+        return grid.toCompactString();
+    }
+
+    @Test
+    public void testThatASymmetricPuzzleIsAnsweredFromTheCache() {
+        final SolutionCache cache = new SolutionCache(10);
+        final Grid grid = GridFixtures.createGrid(GridFixtures.INKALA);
+        final Grid symmetric = GridFixtures.relabel(GridFixtures.transpose(GridFixtures.swapRows(grid, 6, 8)));
+        final String expected = solveWithoutCache(symmetric);
+
+        assertTrue(new CachingSolver(grid, cache).solve());
+        assertEquals(1, cache.size());
+
+        final CachingSolver solver = new CachingSolver(symmetric, cache);
+        assertTrue(solver.solve());
+        assertEquals(expected, symmetric.toCompactString());
+        assertEquals(0, solver.getStatistics().getTries());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testThatAnUnsolvablePuzzleIsNotCached() {
+        final SolutionCache cache = new SolutionCache(10);
+        final Grid grid = GridFixtures.createGrid(NO_SOLUTION);
+
+        assertFalse(new CachingSolver(grid, cache).solve());
+        assertEquals(NO_SOLUTION, grid.toCompactString());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testThatTheLeastRecentlyUsedSolutionIsDropped() {
+        final SolutionCache cache = new SolutionCache(2);
+        final Grid inkala = GridFixtures.createGrid(GridFixtures.INKALA);
+        final Grid advanced = GridFixtures.createGrid(GridFixtures.ADVANCED);
+        final Grid empty = new Grid();
+        final CanonicalForm inkalaForm = CanonicalForm.of(inkala);
+        final CanonicalForm advancedForm = CanonicalForm.of(advanced);
+        final CanonicalForm emptyForm = CanonicalForm.of(empty);
+
+        cache.put(inkalaForm, inkalaForm.toCanonicalValues(inkala));
+        cache.put(advancedForm, advancedForm.toCanonicalValues(advanced));
+        assertNotNull(cache.get(inkalaForm));
+        cache.put(emptyForm, emptyForm.toCanonicalValues(empty));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(inkalaForm));
+        assertNull(cache.get(advancedForm));
+        assertNotNull(cache.get(emptyForm));
+    }
+}
@@ -0,0 +1,56 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static com.iweb.sudoku.GridFixtures.*;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class CanonicalFormTest {
+    @Test
+    public void testThatTheKeyHasTheGivensOfThePuzzle() {
+        final String key = CanonicalForm.of(createGrid(INKALA)).getKey();
+
+        assertEquals(81, key.length());
+        assertEquals(INKALA.replaceAll("[^.]", "").length(), key.replaceAll("[^.]", "").length());
+        assertEquals('1', key.replace(".", "").charAt(0));
+    }
+
+    @Test
+    public void testThatSymmetricPuzzlesShareTheirForm() {
+        final Grid grid = createGrid(INKALA);
+        final String key = CanonicalForm.of(grid).getKey();
+
+        assertEquals(key, CanonicalForm.of(relabel(grid)).getKey());
+        assertEquals(key, CanonicalForm.of(transpose(grid)).getKey());
+        assertEquals(key, CanonicalForm.of(swapRows(grid, 6, 8)).getKey());
+        assertEquals(key, CanonicalForm.of(relabel(swapRows(transpose(grid), 3, 5))).getKey());
+    }
+
+    @Test
+    public void testThatDifferentPuzzlesHaveDifferentForms() {
+        assertFalse(CanonicalForm.of(createGrid(INKALA)).getKey().equals(CanonicalForm.of(createGrid(ADVANCED)).getKey()));
+    }
+
+    @Test
+    public void testThatCanonicalValuesAreMappedBackToTheGrid() {
+        final Grid grid = relabel(transpose(createGrid(ADVANCED)));
+        final CanonicalForm form = CanonicalForm.of(grid);
+        final byte[] values = form.toCanonicalValues(grid);
+
+        final Grid mapped = new Grid();
+        form.fromCanonicalValues(values, mapped);
+        assertEquals(grid.toCompactString(), mapped.toCompactString());
+        assertEquals(form.getKey(), createGrid(new String(toChars(values))).toCompactString());
+    }
+
+    private static char[] toChars(final byte[] values) {
+        final char[] chars = new char[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            chars[i] = values[i] == Grid.EMPTY ? '.' : (char) ('0' + values[i]);
+        }
+        return chars;
+    }
+}
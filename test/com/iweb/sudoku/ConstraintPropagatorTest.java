@@ -0,0 +1,60 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class ConstraintPropagatorTest {
+
+    @Test
+    public void testThatACellWithASingleCandidateGetsItsValue() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("12345678.........................................................................");
+        final ConstraintPropagator propagator = new ConstraintPropagator(grid);
+
+        assertTrue(propagator.propagate());
+        assertEquals(9, grid.getCellValue(8));
+    }
+
+    @Test
+    public void testThatAValueWithASingleCellLeftInAUnitGetsPlaced() {
+        final Grid grid = new Grid();
+        // 1 is excluded from every cell of the first sub grid but cell 20
+        grid.setCell(5, 1);
+        grid.setCell(15, 1);
+        grid.setCell(27, 1);
+        grid.setCell(64, 1);
+        final ConstraintPropagator propagator = new ConstraintPropagator(grid);
+
+        assertTrue(propagator.propagate());
+        assertEquals(1, grid.getCellValue(20));
+    }
+
+    @Test
+    public void testThatPropagationFailsWhenACellHasNoCandidateLeft() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("12345678.........9...............................................................");
+        final ConstraintPropagator propagator = new ConstraintPropagator(grid);
+
+        assertFalse(propagator.propagate());
+    }
+
+    @Test
+    public void testThatUndoClearsOnlyTheCellsPlacedAfterTheMark() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("...|.1.|..5 .3.|8..|..4 81.|..2|6.. ...|5.4|.6. 94.|7.6|.53 .8.|1.3|... ..9|6..|.48 4..|..8|.9. 7..|.4.|...");
+        final String before = grid.toString();
+        final ConstraintPropagator propagator = new ConstraintPropagator(grid);
+
+        final int mark = propagator.mark();
+        assertTrue(propagator.propagate());
+        assertTrue(propagator.getPlacementCount() > 0);
+        assertFalse(before.equals(grid.toString()));
+
+        propagator.undo(mark);
+        assertEquals(before, grid.toString());
+    }
+}
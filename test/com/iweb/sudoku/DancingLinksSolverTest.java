@@ -0,0 +1,64 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class DancingLinksSolverTest {
+
+    @Test
+    public void testThatAFullGridIsSolvedWithoutTry() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("693784512487512936125963874932651487568247391741398625319475268856129743274836159");
+        final DancingLinksSolver solver = new DancingLinksSolver(grid);
+        assertTrue(solver.solve());
+        assertEquals(0, solver.getStatistics().getTries());
+    }
+
+    @Test
+    public void testThatAnEmptyGridGetsFilled() {
+        final Grid grid = new Grid();
+        final GridSolver solver = new DancingLinksSolver(grid);
+        assertTrue(solver.solve());
+        for (int i = 0; i < Grid.CELL_COUNT; ++i) {
+            assertTrue(grid.cellHasValue(i));
+        }
+        assertFalse(new Solver(grid).hasDuplicates());
+    }
+
+    @Test
+    public void testThatItFindsTheSameSolutionAsTheBacktrackingSolver() {
+        final String sudoku = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        final Grid grid = new Grid();
+        grid.loadGridFromString(sudoku);
+        assertTrue(new DancingLinksSolver(grid).solve());
+
+        final Grid backtrackedGrid = new Grid();
+        backtrackedGrid.loadGridFromString(sudoku);
+        assertTrue(new Solver(backtrackedGrid).solve());
+
+        assertEquals(backtrackedGrid.toString(), grid.toString());
+    }
+
+    @Test
+    public void testThatItFailsAndLeavesTheGridUnchangedWhenGivensConflict() {
+        final Grid grid = new Grid();
+        grid.setCell(0, 4);
+        grid.setCell(8, 4);
+        final String before = grid.toString();
+        assertFalse(new DancingLinksSolver(grid).solve());
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatItFailsQuicklyWhenThereIsNoSolution() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(". . . |. . 5 |. 8 . . . . |6 . 1 |. 4 3 . . . |. . . |. . . ------+------+------. 1 . |5 . . |. . . . . . |1 . 6 |. . . 3 . . |. . . |. . 5 ------+------+------5 3 . |. . . |. 6 1 . . . |. . . |. . 4 . . . |. . . |. . .");
+        final String before = grid.toString();
+        assertFalse(new DancingLinksSolver(grid).solve());
+        assertEquals(before, grid.toString());
+    }
+}
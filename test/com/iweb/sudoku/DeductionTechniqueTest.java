@@ -0,0 +1,154 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static com.iweb.sudoku.Grid.ALL_CANDIDATES;
+import static com.iweb.sudoku.Grid.bitFor;
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class DeductionTechniqueTest {
+    private static void assertHasCandidate(final GridCandidates candidates, final int cellIndex, final int value) {
+        assertTrue("Cell " + cellIndex + " lost " + value, (candidates.getMaskFor(cellIndex) & bitFor(value)) != 0);
+    }
+
+    private static void assertHasNotCandidate(final GridCandidates candidates, final int cellIndex, final int value) {
+        assertEquals("Cell " + cellIndex + " kept " + value, 0, candidates.getMaskFor(cellIndex) & bitFor(value));
+    }
+
+    // Leaves only the given values to the cell
+    private static void restrict(final GridCandidates candidates, final int cellIndex, final int... values) {
+        int kept = 0;
+        for (final int value : values) {
+            kept |= bitFor(value);
+        }
+        candidates.exclude(cellIndex, ALL_CANDIDATES & ~kept);
+    }
+
+    @Test
+    public void testThatASubGridPointingToARowClearsTheRestOfTheRow() {
+        final Grid grid = new Grid();
+        final GridCandidates candidates = new GridCandidates(grid);
+        final int[] filled = {9, 10, 11, 18, 19, 20};
+        for (int i = 0; i < filled.length; ++i) {
+            grid.setCell(filled[i], i + 2);
+        }
+
+        assertTrue(new LockedCandidates().apply(candidates));
+        for (int cellIndex = 3; cellIndex < 9; ++cellIndex) {
+            assertHasNotCandidate(candidates, cellIndex, 1);
+        }
+        assertHasCandidate(candidates, 0, 1);
+        assertHasCandidate(candidates, 12, 1);
+    }
+
+    @Test
+    public void testThatARowClaimingASubGridClearsTheRestOfTheSubGrid() {
+        final GridCandidates candidates = new GridCandidates(new Grid());
+        for (int cellIndex = 3; cellIndex < 9; ++cellIndex) {
+            candidates.exclude(cellIndex, bitFor(1));
+        }
+
+        assertTrue(new LockedCandidates().apply(candidates));
+        for (final int cellIndex : new int[] {9, 10, 11, 18, 19, 20}) {
+            assertHasNotCandidate(candidates, cellIndex, 1);
+        }
+        assertHasCandidate(candidates, 2, 1);
+        assertHasCandidate(candidates, 27, 1);
+        assertFalse(new LockedCandidates().apply(candidates));
+    }
+
+    @Test
+    public void testThatANakedPairClearsItsValuesFromItsUnits() {
+        final GridCandidates candidates = new GridCandidates(new Grid());
+        restrict(candidates, 0, 1, 2);
+        restrict(candidates, 1, 1, 2);
+
+        assertTrue(new NakedSubset(2).apply(candidates));
+        for (final int cellIndex : new int[] {2, 5, 8, 9, 20}) {
+            assertHasNotCandidate(candidates, cellIndex, 1);
+            assertHasNotCandidate(candidates, cellIndex, 2);
+        }
+        assertHasCandidate(candidates, 0, 1);
+        assertHasCandidate(candidates, 1, 2);
+        assertHasCandidate(candidates, 27, 1);
+    }
+
+    @Test
+    public void testThatANakedTripleNeedsNoCellWithAllThreeValues() {
+        final GridCandidates candidates = new GridCandidates(new Grid());
+        restrict(candidates, 0, 1, 2);
+        restrict(candidates, 4, 2, 3);
+        restrict(candidates, 8, 1, 3);
+
+        assertFalse(new NakedSubset(2).apply(candidates));
+        assertTrue(new NakedSubset(3).apply(candidates));
+        for (final int cellIndex : new int[] {1, 2, 3, 5, 6, 7}) {
+            assertHasNotCandidate(candidates, cellIndex, 1);
+            assertHasNotCandidate(candidates, cellIndex, 2);
+            assertHasNotCandidate(candidates, cellIndex, 3);
+        }
+        assertHasCandidate(candidates, 9, 3);
+    }
+
+    @Test
+    public void testThatAHiddenPairLosesItsOtherCandidates() {
+        final GridCandidates candidates = new GridCandidates(new Grid());
+        for (int cellIndex = 2; cellIndex < 9; ++cellIndex) {
+            candidates.exclude(cellIndex, bitFor(1) | bitFor(2));
+        }
+
+        assertTrue(new HiddenSubset(2).apply(candidates));
+        assertEquals(bitFor(1) | bitFor(2), candidates.getMaskFor(0));
+        assertEquals(bitFor(1) | bitFor(2), candidates.getMaskFor(1));
+        assertEquals(ALL_CANDIDATES, candidates.getMaskFor(9));
+        assertFalse(new HiddenSubset(2).apply(candidates));
+    }
+
+    @Test
+    public void testThatAnXWingClearsItsColumns() {
+        final GridCandidates candidates = new GridCandidates(new Grid());
+        for (int column = 1; column < 8; ++column) {
+            candidates.exclude(column, bitFor(1));
+            candidates.exclude(4 * 9 + column, bitFor(1));
+        }
+
+        assertTrue(new XWing().apply(candidates));
+        for (int row = 0; row < 9; ++row) {
+            if (row == 0 || row == 4) {
+                assertHasCandidate(candidates, row * 9, 1);
+                assertHasCandidate(candidates, row * 9 + 8, 1);
+            } else {
+                assertHasNotCandidate(candidates, row * 9, 1);
+                assertHasNotCandidate(candidates, row * 9 + 8, 1);
+                assertHasCandidate(candidates, row * 9 + 4, 1);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatASubsetOfOneIsRejected() {
+        new NakedSubset(1);
+    }
+
+    @Test
+    public void testThatTechniquesNeverRuleOutTheSolution() {
+        for (int seed = 0; seed < 40; ++seed) {
+            final GeneratedPuzzle generated = new PuzzleGenerator(seed).generate();
+            for (final DeductionTechnique technique : TechniquePipeline.standard().getTechniques()) {
+                final Grid grid = generated.getPuzzle().copy();
+                final GridCandidates candidates = new GridCandidates(grid);
+                while (technique.apply(candidates)) {
+                    // until the technique finds nothing more
+                }
+                for (int cellIndex = 0; cellIndex < grid.getCellCount(); ++cellIndex) {
+                    if (!grid.cellHasValue(cellIndex)) {
+                        assertHasCandidate(candidates, cellIndex, generated.getSolution().getCellValue(cellIndex));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.iweb.sudoku;
+
+// Puzzles and grid helpers shared by the tests
+final class GridFixtures {
+    static final String INKALA = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    static final String ADVANCED = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+
+    static Grid createGrid(final String puzzle) {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(puzzle);
+        return grid;
+    }
+
+    static Grid transpose(final Grid grid) {
+        final Grid transposed = new Grid();
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            transposed.setCell(Grid.columnOf(cellIndex) * Grid.SIZE + Grid.rowOf(cellIndex), grid.getCellValue(cellIndex));
+        }
+        return transposed;
+    }
+
+    static Grid swapRows(final Grid grid, final int first, final int second) {
+        final Grid swapped = new Grid();
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            int row = Grid.rowOf(cellIndex);
+            row = row == first ? second : row == second ? first : row;
+            swapped.setCell(row * Grid.SIZE + Grid.columnOf(cellIndex), grid.getCellValue(cellIndex));
+        }
+        return swapped;
+    }
+
+    // Value v becomes 10 - v
+    static Grid relabel(final Grid grid) {
+        final Grid relabeled = new Grid();
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            final int value = grid.getCellValue(cellIndex);
+            relabeled.setCell(cellIndex, value == Grid.EMPTY ? Grid.EMPTY : Grid.SIZE + 1 - value);
+        }
+        return relabeled;
+    }
+
+    private GridFixtures() {
+    }
+}
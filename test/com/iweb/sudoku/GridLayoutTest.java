@@ -0,0 +1,68 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+@RunWith(JUnit4ClassRunner.class)
+public class GridLayoutTest {
+    // A solved grid with the given share of its cells emptied, always the same for a seed
+    static Grid createPatternPuzzle(final int boxSize, final int emptyPercent, final long seed) {
+        final Grid grid = new Grid(boxSize);
+        final int size = grid.getSize();
+        final Random random = new Random(seed);
+        for (int cellIndex = 0; cellIndex < grid.getCellCount(); ++cellIndex) {
+            final int row = cellIndex / size;
+            final int col = cellIndex % size;
+            if (random.nextInt(100) >= emptyPercent) {
+                grid.setCell(cellIndex, (boxSize * (row % boxSize) + row / boxSize + col) % size + 1);
+            }
+        }
+        return grid;
+    }
+
+    @Test
+    public void testThatSizesFollowTheBoxSize() {
+        final GridLayout layout = GridLayout.of(4);
+
+        assertEquals(4, layout.getBoxSize());
+        assertEquals(16, layout.getSize());
+        assertEquals(256, layout.getCellCount());
+        assertEquals(0xFFFF, layout.getAllCandidates());
+        assertSame(layout, GridLayout.of(4));
+        assertEquals("16x16", layout.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatBoxesTooLargeForAnIntMaskAreRejected() {
+        GridLayout.of(6);
+    }
+
+    @Test
+    public void testThatTheClassicLayoutMatchesTheGridHelpers() {
+        final GridLayout layout = GridLayout.of(3);
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            assertEquals(Grid.rowOf(cellIndex), layout.rowOf(cellIndex));
+            assertEquals(Grid.columnOf(cellIndex), layout.columnOf(cellIndex));
+            assertEquals(Grid.subGridOf(cellIndex), layout.subGridOf(cellIndex));
+        }
+    }
+
+    @Test
+    public void testThatSubGridsOf16x16AreFourByFour() {
+        final GridLayout layout = GridLayout.of(4);
+
+        assertEquals(0, layout.subGridOf(3));
+        assertEquals(1, layout.subGridOf(4));
+        assertEquals(4, layout.subGridOf(4 * 16));
+        assertEquals(15, layout.subGridOf(255));
+        assertEquals(3 * 16, layout.units.length);
+        final int[] lastSubGrid = layout.units[2 * 16 + 15];
+        assertEquals(12 * 16 + 12, lastSubGrid[0]);
+        assertEquals(255, lastSubGrid[15]);
+    }
+}
@@ -0,0 +1,131 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+@RunWith(JUnit4ClassRunner.class)
+public class GridParserTest {
+    private static final String SOLVED = "693784512487512936125963874932651487568247391741398625319475268856129743274836159";
+    private static final String PUZZLE = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+
+    @Test
+    public void testThatACompactGridIsParsed() {
+        final Grid grid = new Grid();
+        final ParseResult result = GridParser.parse(PUZZLE, grid);
+
+        assertTrue(result.isValid());
+        assertEquals(Grid.CELL_COUNT, result.getCellCount());
+        assertEquals(0, grid.getCellValue(0));
+        assertEquals(1, grid.getCellValue(3));
+        assertEquals(9, grid.getCellValue(77));
+    }
+
+    @Test
+    public void testThatZeroIsAnEmptyCellLikeAPoint() {
+        final Grid pointGrid = new Grid();
+        GridParser.parse(PUZZLE, pointGrid);
+        final Grid zeroGrid = new Grid();
+        final ParseResult result = GridParser.parse(PUZZLE.replace('.', '0'), zeroGrid);
+
+        assertTrue(result.isValid());
+        assertEquals(pointGrid.toString(), zeroGrid.toString());
+    }
+
+    @Test
+    public void testThatTheBoxedFormatOfToStringIsParsedBack() {
+        final Grid grid = new Grid();
+        GridParser.parse(SOLVED, grid);
+        final Grid parsedGrid = new Grid();
+
+        assertTrue(GridParser.parse(new StringBuilder(grid.toString()), parsedGrid).isValid());
+        assertEquals(grid.toString(), parsedGrid.toString());
+    }
+
+    @Test
+    public void testThatBytesAndByteBuffersAreParsedLikeText() throws Exception {
+        final byte[] bytes = ("garbage\n" + PUZZLE + "\n").getBytes("US-ASCII");
+        final Grid textGrid = new Grid();
+        GridParser.parse(PUZZLE, textGrid);
+
+        final Grid byteGrid = new Grid();
+        assertTrue(GridParser.parse(bytes, 8, 81, byteGrid).isValid());
+        assertEquals(textGrid.toString(), byteGrid.toString());
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.position(8);
+        buffer.limit(8 + 81);
+        final Grid bufferGrid = new Grid();
+        assertTrue(GridParser.parse(buffer, bufferGrid).isValid());
+        assertEquals(8, buffer.position());
+        assertEquals(textGrid.toString(), bufferGrid.toString());
+    }
+
+    @Test
+    public void testThatTooFewOrTooManyCellsAreReportedAndLeaveTheGridUntouched() {
+        final Grid grid = new Grid();
+        grid.setCell(40, 5);
+
+        final ParseResult tooFew = GridParser.parse(PUZZLE.substring(1), grid);
+        assertFalse(tooFew.isValid());
+        assertEquals(80, tooFew.getCellCount());
+        assertEquals("Expected 81 cells but found 80", tooFew.getMessage());
+
+        final ParseResult tooMany = GridParser.parse(PUZZLE + "7", grid);
+        assertFalse(tooMany.isValid());
+        assertEquals(82, tooMany.getCellCount());
+
+        assertEquals(5, grid.getCellValue(40));
+        assertFalse(grid.cellHasValue(3));
+    }
+
+    @Test
+    public void testThatLettersAreValuesAbove9OnLargerGrids() {
+        final Grid grid = new Grid(4);
+        final StringBuilder text = new StringBuilder("123456789ABCDEFg");
+        final StringBuilder expected = new StringBuilder("123456789ABCDEFG");
+        for (int i = 16; i < 256; ++i) {
+            text.append(i % 2 == 0 ? '.' : '0');
+            expected.append('.');
+        }
+        final ParseResult result = GridParser.parse(text, grid);
+
+        assertTrue(result.isValid());
+        assertEquals(256, result.getCellCount());
+        assertEquals(9, grid.getCellValue(8));
+        assertEquals(10, grid.getCellValue(9));
+        assertEquals(16, grid.getCellValue(15));
+        assertFalse(grid.cellHasValue(16));
+        assertEquals(expected.toString(), grid.toCompactString());
+    }
+
+    @Test
+    public void testThatLettersBeyondTheGridSizeAreIgnored() {
+        final Grid grid = new Grid(2);
+        assertTrue(GridParser.parse("12..\n..E..\n4...\n.3..", grid).isValid());
+        assertEquals("12......4....3..", grid.toCompactString());
+
+        final ParseResult result = GridParser.parse(PUZZLE, grid);
+        assertFalse(result.isValid());
+        assertTrue(result.getMessage().startsWith("Expected 16 cells"));
+    }
+
+    @Test
+    public void testThatParsingOverAFilledGridLeavesConsistentCandidates() {
+        final Grid reused = new Grid();
+        GridParser.parse(SOLVED, reused);
+        GridParser.parse(PUZZLE, reused);
+        final Grid fresh = new Grid();
+        GridParser.parse(PUZZLE, fresh);
+
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            assertEquals(fresh.getCellValue(cellIndex), reused.getCellValue(cellIndex));
+            assertEquals(fresh.getCandidateMaskFor(cellIndex), reused.getCandidateMaskFor(cellIndex));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+@RunWith(JUnit4ClassRunner.class)
+public class GridRendererTest {
+    private static final String PUZZLE = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+    private static final String PUZZLE_BOX =
+            "+---+---+---+\n" +
+            "|...|1.5|...|\n" +
+            "|14.|...|67.|\n" +
+            "|.8.|..2|4..|\n" +
+            "+---+---+---+\n" +
+            "|.63|.7.|.1.|\n" +
+            "|9..|...|..3|\n" +
+            "|.1.|.9.|52.|\n" +
+            "+---+---+---+\n" +
+            "|..7|2..|.8.|\n" +
+            "|.26|...|.35|\n" +
+            "|...|4.9|...|\n" +
+            "+---+---+---+";
+
+    private Grid createPuzzle() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(PUZZLE);
+        return grid;
+    }
+
+    @Test
+    public void testThatTheBoxFormatIsAppendedAfterExistingText() {
+        final StringBuilder target = new StringBuilder("> ");
+        GridRenderer.appendBox(createPuzzle(), target);
+
+        assertEquals("> " + PUZZLE_BOX, target.toString());
+        assertEquals(GridRenderer.BOX_LENGTH, PUZZLE_BOX.length());
+    }
+
+    @Test
+    public void testThatTheCompactFormatIsAppended() {
+        assertEquals(PUZZLE, GridRenderer.appendCompact(createPuzzle(), new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testThatAnAppendableGetsTheSameText() throws IOException {
+        final StringWriter writer = new StringWriter();
+        GridRenderer.appendBox(createPuzzle(), writer);
+        writer.write('\n');
+        GridRenderer.appendCompact(createPuzzle(), writer);
+
+        assertEquals(PUZZLE_BOX + "\n" + PUZZLE, writer.toString());
+    }
+
+    @Test
+    public void testThatBytesAreWrittenAtTheOffset() throws IOException {
+        final byte[] target = new byte[1 + GridRenderer.COMPACT_LENGTH + GridRenderer.BOX_LENGTH];
+        int offset = GridRenderer.writeCompact(createPuzzle(), target, 1);
+        assertEquals(1 + GridRenderer.COMPACT_LENGTH, offset);
+        offset = GridRenderer.writeBox(createPuzzle(), target, offset);
+        assertEquals(target.length, offset);
+
+        assertEquals(0, target[0]);
+        assertEquals(PUZZLE + PUZZLE_BOX, new String(target, 1, target.length - 1, "US-ASCII"));
+    }
+
+    @Test
+    public void testThatTheBoxFormatIsParsedBack() {
+        final Grid grid = new Grid();
+        assertTrue(GridParser.parse(PUZZLE_BOX, grid).isValid());
+        assertEquals(PUZZLE, grid.toCompactString());
+    }
+
+    @Test
+    public void testThatA4x4GridIsRenderedInTwoByTwoBoxes() {
+        final Grid grid = new Grid(2);
+        grid.loadGridFromString("1234341221434321");
+        final String box = "+--+--+\n|12|34|\n|34|12|\n+--+--+\n|21|43|\n|43|21|\n+--+--+";
+
+        assertEquals(box, grid.toString());
+        assertEquals(box.length(), GridRenderer.boxLengthOf(grid.getLayout()));
+        assertEquals(GridRenderer.BOX_LENGTH, GridRenderer.boxLengthOf(GridLayout.of(3)));
+    }
+
+    @Test
+    public void testThatCharsAreWrittenAtTheOffset() {
+        final char[] target = new char[1 + GridRenderer.COMPACT_LENGTH + GridRenderer.BOX_LENGTH];
+        int offset = GridRenderer.writeCompact(createPuzzle(), target, 1);
+        assertEquals(1 + GridRenderer.COMPACT_LENGTH, offset);
+        offset = GridRenderer.writeBox(createPuzzle(), target, offset);
+        assertEquals(target.length, offset);
+
+        assertEquals(0, target[0]);
+        assertEquals(PUZZLE + PUZZLE_BOX, new String(target, 1, target.length - 1));
+    }
+}
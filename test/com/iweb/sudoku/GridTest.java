@@ -49,6 +49,21 @@ public class GridTest {
         assertNull(grid.getCell(cellIndex));
     }
     
+    @Test
+    public void testThatPrimitiveAccessorsUseZeroForAnEmptyCell() {
+        final Grid grid = new Grid();
+        final int cellIndex = 47;
+        assertEquals(EMPTY, grid.getCellValue(cellIndex));
+
+        grid.setCell(cellIndex, 8);
+        assertEquals(8, grid.getCellValue(cellIndex));
+        assertEquals(Integer.valueOf(8), grid.getCell(cellIndex));
+
+        grid.setCell(cellIndex, EMPTY);
+        assertFalse(grid.cellHasValue(cellIndex));
+        assertNull(grid.getCell(cellIndex));
+    }
+
     @Test
     public void testThatACellInAnEmptyGridHasAllPossibleCandidates() {
         final Grid grid = new Grid();
@@ -94,6 +109,109 @@ public class GridTest {
         assertThat(candidates, hasItems(1, 2, 3, 6, 7, 8, 9));
     }
     
+    @Test
+    public void testThatCandidateMaskHasOneBitPerRemainingCandidate() {
+        final Grid grid = new Grid();
+        grid.setCell(4, 9);
+        grid.setCell(19, 8);
+        grid.setCell(10, 1);
+
+        final int mask = grid.getCandidateMaskFor(1);
+        assertEquals(6, Integer.bitCount(mask));
+        assertEquals(0, mask & (bitFor(1) | bitFor(8) | bitFor(9)));
+    }
+
+    @Test
+    public void testThatCandidateMaskIsRestoredWhenCellIsOverwrittenOrCleared() {
+        final Grid grid = new Grid();
+        grid.setCell(0, 5);
+        grid.setCell(0, 7);
+        assertTrue((grid.getCandidateMaskFor(8) & bitFor(5)) != 0);
+        assertEquals(0, grid.getCandidateMaskFor(8) & bitFor(7));
+
+        grid.clearCell(0);
+        assertEquals(9, Integer.bitCount(grid.getCandidateMaskFor(8)));
+    }
+
+    @Test
+    public void testThatACopyHasTheSameCellsButChangesIndependently() {
+        final Grid grid = new Grid();
+        grid.setCell(10, 3);
+        final Grid copy = grid.copy();
+        assertEquals(3, copy.getCellValue(10));
+        assertEquals(0, copy.getCandidateMaskFor(11) & bitFor(3));
+
+        copy.setCell(11, 4);
+        grid.clearCell(10);
+        assertFalse(grid.cellHasValue(11));
+        assertEquals(3, copy.getCellValue(10));
+        assertEquals(0, copy.getCandidateMaskFor(12) & (bitFor(3) | bitFor(4)));
+    }
+
+    @Test
+    public void testThatRestoringASnapshotPutsBackValuesAndCandidates() {
+        final Grid grid = new Grid();
+        grid.setCell(10, 3);
+        final GridSnapshot snapshot = grid.snapshot();
+
+        grid.setCell(11, 4);
+        grid.clearCell(10);
+        grid.setCell(80, 9);
+        grid.restore(snapshot);
+
+        assertEquals(3, grid.getCellValue(10));
+        assertFalse(grid.cellHasValue(11));
+        assertFalse(grid.cellHasValue(80));
+        assertEquals(ALL_CANDIDATES & ~bitFor(3), grid.getCandidateMaskFor(11));
+        assertEquals(ALL_CANDIDATES, grid.getCandidateMaskFor(79));
+    }
+
+    @Test
+    public void testThatASnapshotCanBeTakenAgainAndRestoredManyTimes() {
+        final Grid grid = new Grid();
+        final GridSnapshot snapshot = grid.snapshot();
+        grid.setCell(0, 1);
+        assertSame(snapshot, grid.snapshot(snapshot));
+
+        for (int value = 2; value <= SIZE; ++value) {
+            grid.setCell(1, value);
+            grid.restore(snapshot);
+            assertEquals(1, grid.getCellValue(0));
+            assertFalse(grid.cellHasValue(1));
+        }
+    }
+
+    @Test
+    public void testThatCopyFromOverwritesEveryCell() {
+        final Grid source = new Grid();
+        source.setCell(5, 7);
+        final Grid target = new Grid();
+        target.setCell(6, 2);
+
+        target.copyFrom(source);
+        assertEquals(7, target.getCellValue(5));
+        assertFalse(target.cellHasValue(6));
+        assertEquals(ALL_CANDIDATES & ~bitFor(7), target.getCandidateMaskFor(6));
+    }
+
+    @Test
+    public void testThatClearEmptiesEveryCell() {
+        final Grid grid = new Grid();
+        grid.setCell(0, 1);
+        grid.setCell(80, 9);
+        grid.clear();
+
+        assertFalse(grid.cellHasValue(0));
+        assertFalse(grid.cellHasValue(80));
+        assertEquals(ALL_CANDIDATES, grid.getCandidateMaskFor(1));
+        assertEquals(ALL_CANDIDATES, grid.getCandidateMaskFor(79));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatASnapshotOfAnotherSizeIsRejected() {
+        new Grid().restore(new Grid(4).snapshot());
+    }
+
     @Test
     public void testThatLoadingAGridFromAnInvalidStringShouldNotSetAnyCell() {
         final String invalidGrid = "....643!;";
@@ -174,4 +292,20 @@ public class GridTest {
 
         assertEquals(13, lines.length);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testThatA16x16GridHasSixteenCandidatesPerCell() {
+        final Grid grid = new Grid(4);
+        assertEquals(16, grid.getSize());
+        assertEquals(256, grid.getCellCount());
+        assertEquals(0xFFFF, grid.getCandidateMaskFor(100));
+
+        grid.setCell(0, 16);
+        grid.setCell(255, 9);
+        assertEquals(0xFFFF & ~bitFor(16), grid.getCandidateMaskFor(14));
+        assertEquals(0xFFFF & ~bitFor(16), grid.getCandidateMaskFor(3 * 16 + 3));
+        assertEquals(0xFFFF & ~bitFor(9), grid.getCandidateMaskFor(241));
+        assertEquals(15, grid.getCandidatesFor(17).size());
+        assertEquals(16, grid.copy().getCellValue(0));
+    }
+}
@@ -0,0 +1,62 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class LatencyHistogramTest {
+    private static HistogramSnapshot snapshotOf(final LatencyHistogram histogram) {
+        final long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        histogram.addTo(counts);
+        return new HistogramSnapshot(counts);
+    }
+
+    @Test
+    public void testThatSmallValuesHaveABucketEach() {
+        for (int value = 0; value < 16; ++value) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.highestValueOf(value));
+        }
+    }
+
+    @Test
+    public void testThatEveryValueFallsInABucketAtMostASixteenthWide() {
+        final long[] values = {16, 17, 31, 32, 33, 1000, 123456789L, Long.MAX_VALUE};
+        for (final long value : values) {
+            final int bucket = LatencyHistogram.bucketOf(value);
+            final long highest = LatencyHistogram.highestValueOf(bucket);
+            assertTrue(bucket < LatencyHistogram.BUCKET_COUNT);
+            assertTrue(value <= highest);
+            assertTrue(highest - value <= value / 16);
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testThatPercentilesComeFromTheRecordedValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1000; ++value) {
+            histogram.record(value * 1000L);
+        }
+        final HistogramSnapshot snapshot = snapshotOf(histogram);
+
+        assertEquals(1000, snapshot.getTotalCount());
+        assertEquals(500000, snapshot.getValueAtPercentile(50), 500000 / 16);
+        assertEquals(990000, snapshot.getValueAtPercentile(99), 990000 / 16);
+        assertEquals(1000000, snapshot.getMax(), 1000000 / 16);
+        assertTrue(snapshot.getValueAtPercentile(99.9) <= snapshot.getMax());
+    }
+
+    @Test
+    public void testThatAnEmptyHistogramReportsZero() {
+        final HistogramSnapshot snapshot = snapshotOf(new LatencyHistogram());
+
+        assertEquals(0, snapshot.getTotalCount());
+        assertEquals(0, snapshot.getValueAtPercentile(99));
+        assertEquals(0, snapshot.getMax());
+    }
+}
@@ -0,0 +1,126 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class LockstepSolverTest {
+    private static final String NO_SOLUTION = "12345678.........9...............................................................";
+    private static final String DUPLICATE = "11...............................................................................";
+
+    private static String solveAlone(final Grid puzzle) {
+        final Grid grid = puzzle.copy();
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        return solver.solve() ? grid.toCompactString() : puzzle.toCompactString();
+    }
+
+    @Test
+    public void testThatEveryPuzzleGetsTheSolutionOfTheScalarSolver() {
+        final int count = 300;
+        final Grid[] grids = new Grid[count];
+        final String[] expected = new String[count];
+        for (int i = 0; i < count; ++i) {
+            grids[i] = new PuzzleGenerator(i).generate().getPuzzle();
+            expected[i] = solveAlone(grids[i]);
+        }
+
+        // Chunks of 64 lanes, the last one only partly used
+        final LockstepSolver solver = new LockstepSolver(64);
+        assertEquals(count, solver.solve(grids, count));
+        for (int i = 0; i < count; ++i) {
+            assertTrue(solver.isSolved(i));
+            assertEquals(expected[i], grids[i].toCompactString());
+        }
+        assertTrue(solver.getFallbackCount() > 0);
+        assertTrue(solver.getFallbackCount() < count);
+    }
+
+    @Test
+    public void testThatSinglesAloneSolveEasyPuzzles() {
+        final GeneratedPuzzle generated = new PuzzleGenerator(1L).generate(Difficulty.EASY);
+        final Grid[] grids = {generated.getPuzzle().copy()};
+
+        final LockstepSolver solver = new LockstepSolver();
+        assertEquals(1, solver.solve(grids, 1));
+        assertEquals(0, solver.getFallbackCount());
+        assertEquals(generated.getSolution().toCompactString(), grids[0].toCompactString());
+    }
+
+    @Test
+    public void testThatPuzzlesWithoutSolutionAreLeftUnchanged() {
+        final Grid[] grids = {
+                GridFixtures.createGrid(GridFixtures.INKALA),
+                GridFixtures.createGrid(NO_SOLUTION),
+                GridFixtures.createGrid(DUPLICATE),
+        };
+        final String inkalaSolution = solveAlone(grids[0]);
+
+        final LockstepSolver solver = new LockstepSolver(8);
+        assertEquals(1, solver.solve(grids, 3));
+        assertTrue(solver.isSolved(0));
+        assertFalse(solver.isSolved(1));
+        assertFalse(solver.isSolved(2));
+        assertEquals(inkalaSolution, grids[0].toCompactString());
+        assertEquals(NO_SOLUTION, grids[1].toCompactString());
+        assertEquals(DUPLICATE, grids[2].toCompactString());
+    }
+
+    @Test
+    public void testThatCellValuesAreSolvedInPlaceLikeGrids() {
+        final String[] puzzles = {
+                GridFixtures.INKALA,
+                NO_SOLUTION,
+                new PuzzleGenerator(1L).generate(Difficulty.EASY).getPuzzle().toCompactString(),
+                DUPLICATE,
+        };
+        final byte[] cells = new byte[puzzles.length * Grid.CELL_COUNT];
+        final Grid[] grids = new Grid[puzzles.length];
+        for (int i = 0; i < puzzles.length; ++i) {
+            assertTrue(GridParser.parse(puzzles[i], cells, i * Grid.CELL_COUNT).isValid());
+            grids[i] = GridFixtures.createGrid(puzzles[i]);
+        }
+
+        final LockstepSolver solver = new LockstepSolver(2);
+        assertEquals(2, solver.solve(cells, puzzles.length));
+        assertEquals(2, new LockstepSolver(2).solve(grids, puzzles.length));
+        final char[] line = new char[GridRenderer.COMPACT_LENGTH];
+        for (int i = 0; i < puzzles.length; ++i) {
+            GridRenderer.writeCompact(cells, i * Grid.CELL_COUNT, line, 0);
+            assertEquals(grids[i].toCompactString(), new String(line));
+        }
+        assertTrue(solver.isSolved(0));
+        assertFalse(solver.isSolved(1));
+        assertTrue(solver.isSolved(2));
+        assertFalse(solver.isSolved(3));
+    }
+
+    @Test
+    public void testThatTheOutcomeOfEveryPuzzleIsRecordedInTheMetrics() {
+        final Grid[] grids = {
+                new PuzzleGenerator(1L).generate(Difficulty.EASY).getPuzzle(),
+                GridFixtures.createGrid(GridFixtures.INKALA),
+                GridFixtures.createGrid(NO_SOLUTION),
+                GridFixtures.createGrid(DUPLICATE),
+        };
+        final SolverMetrics metrics = new SolverMetrics();
+        final LockstepSolver solver = new LockstepSolver(3);
+        solver.setMetrics(metrics);
+        assertEquals(2, solver.solve(grids, grids.length));
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getLockstepSolved());
+        assertEquals(2, snapshot.getLockstepUnsolvable());
+        assertEquals(1, snapshot.getLockstepFallbacks());
+        assertEquals(1, snapshot.getSolves());
+        assertEquals(1, snapshot.getSolved());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatAnotherGridSizeIsRejected() {
+        new LockstepSolver().solve(new Grid[] {new Grid(2)}, 1);
+    }
+}
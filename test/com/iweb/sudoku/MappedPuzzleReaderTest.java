@@ -0,0 +1,139 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+@RunWith(JUnit4ClassRunner.class)
+public class MappedPuzzleReaderTest {
+    private static final String FIRST = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+    private static final String SECOND = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("puzzles", ".txt");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void testThatPuzzlesAreReadOneByOneAcrossWindows() throws IOException {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50; ++i) {
+            content.append(i % 2 == 0 ? FIRST : SECOND).append('\n');
+        }
+        write(content.toString());
+
+        final MappedPuzzleReader reader = new MappedPuzzleReader(file, 100);
+        try {
+            final Grid grid = new Grid();
+            final Grid expected = new Grid();
+            for (int i = 0; i < 50; ++i) {
+                assertTrue(reader.next(grid).isValid());
+                expected.loadGridFromString(i % 2 == 0 ? FIRST : SECOND);
+                assertEquals(expected.toString(), grid.toString());
+                assertEquals(i + 1, reader.getLineNumber());
+            }
+            assertNull(reader.next(grid));
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testThatBlankLinesAreSkippedAndInvalidLinesReported() throws IOException {
+        write("\r\n" + FIRST + "\r\n   \n1234\n" + SECOND);
+
+        final MappedPuzzleReader reader = new MappedPuzzleReader(file, 90);
+        try {
+            final Grid grid = new Grid();
+            assertTrue(reader.next(grid).isValid());
+            assertEquals(2, reader.getLineNumber());
+
+            final ParseResult invalid = reader.next(grid);
+            assertFalse(invalid.isValid());
+            assertEquals(4, invalid.getCellCount());
+            assertEquals(4, reader.getLineNumber());
+
+            assertTrue(reader.next(grid).isValid());
+            assertEquals(8, grid.getCellValue(0));
+            assertNull(reader.next(grid));
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testThatBoxedGridsAreReadOverLinesAcrossWindows() throws IOException {
+        final Grid first = GridFixtures.createGrid(FIRST);
+        final Grid second = GridFixtures.createGrid(SECOND);
+        // Without a blank line between the second and third grids
+        write(first + "\n\n" + second + "\n" + first + "\n");
+
+        final MappedPuzzleReader reader = new MappedPuzzleReader(file, 300);
+        try {
+            final Grid grid = new Grid();
+            assertTrue(reader.nextMultiLine(grid).isValid());
+            assertEquals(first.toString(), grid.toString());
+            assertEquals(12, reader.getLineNumber());
+            assertTrue(reader.nextMultiLine(grid).isValid());
+            assertEquals(second.toString(), grid.toString());
+            assertEquals(26, reader.getLineNumber());
+            assertTrue(reader.nextMultiLine(grid).isValid());
+            assertEquals(first.toString(), grid.toString());
+            assertNull(reader.nextMultiLine(grid));
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testThatAnEmptyFileHasNoPuzzle() throws IOException {
+        final MappedPuzzleReader reader = new MappedPuzzleReader(file);
+        try {
+            assertNull(reader.next(new Grid()));
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testThatALineLongerThanTheWindowFails() throws IOException {
+        write(FIRST + "\n" + FIRST + "\n");
+
+        final MappedPuzzleReader reader = new MappedPuzzleReader(file, 50);
+        try {
+            reader.next(new Grid());
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    private void write(final String content) throws IOException {
+        final FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(content.getBytes("US-ASCII"));
+        }
+        finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4ClassRunner.class)
+public class ParallelSolverTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testThatItFindsTheSameSolutionAsTheSequentialSolver() {
+        final String sudoku = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        final Grid grid = new Grid();
+        grid.loadGridFromString(sudoku);
+        final GridSolver solver = new ParallelSolver(grid, pool, 2);
+        assertTrue(solver.solve());
+        assertTrue(solver.getStatistics().getTries() > 0);
+
+        final Grid sequentialGrid = new Grid();
+        sequentialGrid.loadGridFromString(sudoku);
+        assertTrue(new Solver(sequentialGrid).solve());
+
+        assertEquals(sequentialGrid.toString(), grid.toString());
+    }
+
+    @Test
+    public void testThatAPuzzleWithManySolutionsGetsOneOfThem() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(".....6....59.....82....8....45........3........6..3.54...325..6..................");
+        assertTrue(new ParallelSolver(grid, pool, 3).solve());
+        for (int i = 0; i < Grid.CELL_COUNT; ++i) {
+            assertTrue(grid.cellHasValue(i));
+        }
+        assertFalse(new Solver(grid).hasDuplicates());
+    }
+
+    @Test
+    public void testThatItFailsAndLeavesTheGridUnchangedWhenThereIsNoSolution() {
+        final Grid grid = new Grid();
+        // Unique solution puzzle with a wrong but consistent given added in the second cell
+        grid.loadGridFromString("82.........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+        final String before = grid.toString();
+        final GridSolver solver = new ParallelSolver(grid, pool, 2);
+        assertFalse(solver.solve());
+        assertEquals(before, grid.toString());
+        assertEquals(solver.getStatistics().getTries(), solver.getStatistics().getBacktracks());
+    }
+
+    @Test
+    public void testThatASolveOutOfTimeGivesUpWithATimedOutOutcome() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+        final String before = grid.toString();
+        final ParallelSolver solver = new ParallelSolver(grid, pool, 1);
+        solver.setTimeLimit(1, TimeUnit.NANOSECONDS);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.TIMED_OUT, solver.getStatistics().getOutcome());
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatACancelledTokenStopsEveryBranch() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        final ParallelSolver solver = new ParallelSolver(grid, pool, 2);
+        solver.setCancellationToken(token);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.CANCELLED, solver.getStatistics().getOutcome());
+        assertEquals(0, solver.getStatistics().getTries());
+    }
+}
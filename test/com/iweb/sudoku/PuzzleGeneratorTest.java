@@ -0,0 +1,92 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+@RunWith(JUnit4ClassRunner.class)
+public class PuzzleGeneratorTest {
+    private static void assertUniqueAndMatchingItsSolution(final GeneratedPuzzle generated) {
+        final Grid puzzle = generated.getPuzzle().copy();
+        final Solver solver = new Solver(puzzle, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+
+        assertFalse(solver.hasDuplicates());
+        assertTrue(solver.hasUniqueSolution());
+        assertTrue(solver.solve());
+        assertEquals(generated.getSolution().toCompactString(), puzzle.toCompactString());
+    }
+
+    @Test
+    public void testThatAGeneratedPuzzleHasAUniqueSolution() {
+        final GeneratedPuzzle generated = new PuzzleGenerator(42).generate();
+
+        assertUniqueAndMatchingItsSolution(generated);
+        assertTrue(generated.getClueCount() >= 17);
+        assertTrue(generated.getClueCount() < 40);
+    }
+
+    @Test
+    public void testThatEveryClueOfAGeneratedPuzzleIsNeeded() {
+        final Grid puzzle = new PuzzleGenerator(7).generate().getPuzzle();
+        final Solver solver = new Solver(puzzle, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+
+        for (int cellIndex = 0; cellIndex < Grid.CELL_COUNT; ++cellIndex) {
+            final int value = puzzle.getCellValue(cellIndex);
+            if (value != Grid.EMPTY) {
+                puzzle.clearCell(cellIndex);
+                assertEquals(2, solver.countSolutions(2));
+                puzzle.setCell(cellIndex, value);
+            }
+        }
+    }
+
+    @Test
+    public void testThatTheTargetDifficultyIsReached() {
+        for (final Difficulty target : new Difficulty[] {Difficulty.EASY, Difficulty.HARD}) {
+            final GeneratedPuzzle generated = new PuzzleGenerator(3).generate(target);
+            assertEquals(target, generated.getDifficulty());
+            assertUniqueAndMatchingItsSolution(generated);
+        }
+    }
+
+    @Test
+    public void testThatTheSameSeedGivesTheSamePuzzlesInParallel() {
+        final List<GeneratedPuzzle> first = PuzzleGenerator.generate(20, Difficulty.MEDIUM, 4, 1000);
+        final List<GeneratedPuzzle> second = PuzzleGenerator.generate(20, Difficulty.MEDIUM, 2, 1000);
+
+        assertEquals(20, first.size());
+        for (int i = 0; i < first.size(); ++i) {
+            assertEquals(Difficulty.MEDIUM, first.get(i).getDifficulty());
+            assertEquals(first.get(i).getPuzzle().toCompactString(), second.get(i).getPuzzle().toCompactString());
+        }
+        assertEquals(new PuzzleGenerator(1005).generate(Difficulty.MEDIUM).getPuzzle().toCompactString(),
+                first.get(5).getPuzzle().toCompactString());
+    }
+
+    @Test
+    public void testThatA4x4PuzzleIsGenerated() {
+        final GeneratedPuzzle generated = new PuzzleGenerator(GridLayout.of(2), 11).generate();
+
+        assertEquals(16, generated.getPuzzle().getCellCount());
+        assertUniqueAndMatchingItsSolution(generated);
+    }
+
+    @Test
+    public void testThatGradesFollowTheSearchEffort() {
+        final SolveStatistics statistics = new SolveStatistics();
+        assertEquals(Difficulty.EASY, Difficulty.of(statistics));
+        statistics.tries = 4;
+        statistics.maxDepth = 2;
+        assertEquals(Difficulty.MEDIUM, Difficulty.of(statistics));
+        statistics.maxDepth = 3;
+        assertEquals(Difficulty.HARD, Difficulty.of(statistics));
+        statistics.tries = 33;
+        assertEquals(Difficulty.EXPERT, Difficulty.of(statistics));
+    }
+}
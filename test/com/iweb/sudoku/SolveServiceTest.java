@@ -0,0 +1,210 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4ClassRunner.class)
+public class SolveServiceTest {
+    private static final String ADVANCED = "...1.5...14....67..8...24...63.7..1.9.......3.1..9.52...72...8..26....35...4.9...";
+    private static final String INKALA = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String NO_SOLUTION = "12345678.........9...............................................................";
+    private static final String DUPLICATE = "11...............................................................................";
+    private static final String LONG_SEARCH = "4.....8.5.3..........7......2.....6..............1.......2.3.7.5..........4......";
+
+    private SolveService service;
+
+    @After
+    public void closeService() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private SolveService startService(final int workerCount, final int queueCapacity) throws IOException {
+        service = new SolveService(0, workerCount, queueCapacity);
+        service.setMaxBatchSize(3);
+        service.start();
+        return service;
+    }
+
+    // Sends the lines from another thread, so that responses can be read while requests are written
+    private List<String> send(final List<String> lines) throws Exception {
+        final Socket socket = new Socket(InetAddress.getLoopbackAddress(), service.getPort());
+        try {
+            final Thread sender = new Thread() {
+                public void run() {
+                    try {
+                        final Writer writer = new OutputStreamWriter(socket.getOutputStream(), "US-ASCII");
+                        for (final String line : lines) {
+                            writer.write(line);
+                            writer.write('\n');
+                        }
+                        writer.flush();
+                        socket.shutdownOutput();
+                    }
+                    catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            sender.start();
+
+            final List<String> responses = new ArrayList<String>();
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            String response;
+            while ((response = reader.readLine()) != null) {
+                responses.add(response);
+            }
+            sender.join();
+            return responses;
+        }
+        finally {
+            socket.close();
+        }
+    }
+
+    private static String solve(final String puzzle) {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(puzzle);
+        assertTrue(new Solver(grid).solve());
+        return grid.toCompactString();
+    }
+
+    @Test
+    public void testThatPipelinedPuzzlesAreAnsweredInOrderThroughASmallQueue() throws Exception {
+        startService(2, 4);
+        final List<String> lines = new ArrayList<String>();
+        for (int i = 0; i < 300; ++i) {
+            lines.add(i % 3 == 0 ? INKALA : ADVANCED);
+        }
+
+        final List<String> responses = send(lines);
+        assertEquals(300, responses.size());
+        final String inkalaSolution = solve(INKALA);
+        final String advancedSolution = solve(ADVANCED);
+        for (int i = 0; i < 300; ++i) {
+            assertEquals(i % 3 == 0 ? inkalaSolution : advancedSolution, responses.get(i));
+        }
+    }
+
+    @Test
+    public void testThatPuzzlesWithoutSolutionGetTheirReason() throws Exception {
+        startService(1, 16);
+        final List<String> lines = new ArrayList<String>();
+        lines.add("1..4");
+        lines.add(DUPLICATE);
+        lines.add(NO_SOLUTION);
+        lines.add(ADVANCED);
+
+        final List<String> responses = send(lines);
+        assertEquals("-INVALID Expected 81 cells but found 4", responses.get(0));
+        assertTrue(responses.get(1).startsWith("-DUPLICATE "));
+        assertEquals("-UNSOLVABLE", responses.get(2));
+        assertEquals(solve(ADVANCED), responses.get(3));
+    }
+
+    @Test
+    public void testThatTheThreadsOfAClosedConnectionAreForgotten() throws Exception {
+        startService(2, 8);
+        for (int i = 0; i < 5; ++i) {
+            final List<String> lines = new ArrayList<String>();
+            lines.add(ADVANCED);
+            assertEquals(solve(ADVANCED), send(lines).get(0));
+        }
+
+        // Two workers and the acceptor are left, once the last connection threads are done
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (service.getThreadCount() > 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, service.getThreadCount());
+    }
+
+    @Test
+    public void testThatSettingsCannotChangeOnceStarted() throws IOException {
+        startService(1, 4);
+        try {
+            service.setTimeLimit(1, TimeUnit.SECONDS);
+            fail("The workers would not see the new time limit");
+        }
+        catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatANonPositiveTimeLimitIsRejected() {
+        new SolveService(0, 1, 4).setTimeLimit(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testThatATimeLimitUnderAMillisecondIsKept() throws Exception {
+        service = new SolveService(0, 1, 4);
+        service.setTimeLimit(500, TimeUnit.MICROSECONDS);
+        service.start();
+        final List<String> lines = new ArrayList<String>();
+        lines.add(ADVANCED);
+
+        assertEquals(solve(ADVANCED), send(lines).get(0));
+    }
+
+    @Test
+    public void testThatAServiceNeverStartedCanBeClosed() throws IOException {
+        new SolveService(0, 1, 4).close();
+    }
+
+    @Test
+    public void testThatALongSearchTimesOutWithoutHoldingBackTheOthers() throws Exception {
+        service = new SolveService(0, 1, 16);
+        service.setTimeLimit(20, TimeUnit.MILLISECONDS);
+        service.start();
+        final List<String> lines = new ArrayList<String>();
+        lines.add(LONG_SEARCH);
+        lines.add(INKALA);
+
+        final List<String> responses = send(lines);
+        assertEquals("-TIMED_OUT", responses.get(0));
+        assertEquals(solve(INKALA), responses.get(1));
+    }
+
+    @Test
+    public void testThatConnectionsAreServedConcurrently() throws Exception {
+        startService(2, 8);
+        final List<String> lines = new ArrayList<String>();
+        for (int i = 0; i < 50; ++i) {
+            lines.add(ADVANCED);
+        }
+        final List<List<String>> otherResponses = new ArrayList<List<String>>();
+        final Thread other = new Thread() {
+            public void run() {
+                try {
+                    otherResponses.add(send(lines));
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        other.start();
+
+        final List<String> responses = send(lines);
+        other.join();
+        assertEquals(50, responses.size());
+        assertEquals(responses, otherResponses.get(0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class SolverMetricsTest {
+    private static final String INKALA = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String NO_SOLUTION = "12345678.........9...............................................................";
+
+    private static Solver createSolver(final String puzzle, final SolverMetrics metrics) {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(puzzle);
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setMetrics(metrics);
+        return solver;
+    }
+
+    @Test
+    public void testThatSolvesAndValidationsAreCounted() {
+        final SolverMetrics metrics = new SolverMetrics();
+        final Solver solver = createSolver(INKALA, metrics);
+        assertFalse(solver.hasDuplicates());
+        assertTrue(solver.solve());
+        final SolveStatistics statistics = solver.getStatistics();
+        assertFalse(createSolver(NO_SOLUTION, metrics).solve());
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.getSolves());
+        assertEquals(1, snapshot.getSolved());
+        assertEquals(1, snapshot.getUnsolvable());
+        assertEquals(1, snapshot.getValidations());
+        assertEquals(0, snapshot.getDuplicates());
+        assertEquals(statistics.getTries(), snapshot.getTries());
+        assertEquals(statistics.getBacktracks(), snapshot.getBacktracks());
+        assertEquals(2, snapshot.getSolveLatencies().getTotalCount());
+        assertTrue(snapshot.getTriesPerSecond() > 0);
+    }
+
+    @Test
+    public void testThatEveryBranchingRecordsItsCandidateCount() {
+        final SolverMetrics metrics = new SolverMetrics();
+        assertTrue(createSolver(INKALA, metrics).solve());
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        long branchings = 0;
+        for (int count = 1; count <= Grid.SIZE; ++count) {
+            branchings += snapshot.getCandidateCount(count);
+        }
+        assertTrue(branchings > 0);
+        assertTrue(snapshot.getCandidateCount(2) > 0);
+        assertTrue(snapshot.toString().contains("branchings_on_2_candidates "));
+    }
+
+    @Test
+    public void testThatThreadsRecordSeparatelyAndAreMergedInTheSnapshot() throws InterruptedException {
+        final SolverMetrics metrics = new SolverMetrics();
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int solve = 0; solve < 25; ++solve) {
+                        createSolver(INKALA, metrics).solve();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(100, snapshot.getSolved());
+        assertEquals(100, snapshot.getSolveLatencies().getTotalCount());
+    }
+
+    @Test
+    public void testThatEndedThreadsAreRetiredWithoutLosingTheirCounts() throws InterruptedException {
+        final SolverMetrics metrics = new SolverMetrics();
+        for (int i = 0; i < 50; ++i) {
+            final Thread thread = new Thread() {
+                public void run() {
+                    createSolver(INKALA, metrics).solve();
+                }
+            };
+            thread.start();
+            thread.join();
+        }
+
+        final MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, metrics.getRecorderCount());
+        assertEquals(50, snapshot.getSolved());
+        assertEquals(50, snapshot.getSolveLatencies().getTotalCount());
+        createSolver(INKALA, metrics).solve();
+        assertEquals(1, metrics.getRecorderCount());
+        assertEquals(51, metrics.snapshot().getSolveLatencies().getTotalCount());
+    }
+
+    @Test
+    public void testThatTheDumpHasOneLinePerFigure() {
+        final SolverMetrics metrics = new SolverMetrics();
+        final Solver solver = createSolver(INKALA, metrics);
+        solver.setTryLimit(10);
+        solver.solve();
+
+        final String dump = metrics.snapshot().toString();
+        assertTrue(dump.contains("solves 1\n"));
+        assertTrue(dump.contains("solves_timed_out 1\n"));
+        assertTrue(dump.contains("tries 10\n"));
+        assertTrue(dump.contains("solve_latency_ns_p999 "));
+    }
+}
@@ -5,15 +5,12 @@ import org.jmock.Mockery;
 import org.jmock.lib.legacy.ClassImposteriser;
 import org.jmock.integration.junit4.JMock;
 import org.jmock.integration.junit4.JUnit4Mockery;
-import org.junit.Ignore;
 import org.junit.runner.RunWith;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(JMock.class)
 public class SolverTest {
@@ -24,79 +21,83 @@ public class SolverTest {
     };
 
     private final Grid grid = context.mock(Grid.class);
+
+    {
+        context.checking(new Expectations() {
+            {
+                allowing(grid).getLayout();
+                will(returnValue(GridLayout.of(3)));
+            }
+        });
+    }
+
     private final Solver solver = new Solver(grid);
 
     @Test
     public void testThatGridShouldHaveDuplicatesWhenSameNumbersInSameRow() {
         context.checking(new Expectations() {
             {
-                allowing(grid).cellHasValue(37);
-                will(returnValue(true));
-                
-                allowing(grid).getCell(37);
+                allowing(grid).getCellValue(37);
                 will(returnValue(4));
 
-                allowing(grid).cellHasValue(43);
-                will(returnValue(true));
-
-                allowing(grid).getCell(43);
+                allowing(grid).getCellValue(43);
                 will(returnValue(4));
 
                 // Expect all remaining grid cells to not have a value
-                allowing(grid).cellHasValue(with(any(Integer.class)));
-                will(returnValue(false));
+                allowing(grid).getCellValue(with(any(Integer.class)));
+                will(returnValue(Grid.EMPTY));
             }
         });
         assertTrue(solver.hasDuplicates());
+        assertSame(DuplicateValue.of(DuplicateValue.UnitType.ROW, 4, 4), solver.findDuplicate());
     }
 
     @Test
     public void testThatGridShouldHaveDuplicatesWhenSameNumbersInSameColumn() {
         context.checking(new Expectations() {
             {
-                allowing(grid).cellHasValue(15);
-                will(returnValue(true));
-
-                allowing(grid).getCell(15);
+                allowing(grid).getCellValue(15);
                 will(returnValue(3));
 
-                allowing(grid).cellHasValue(69);
-                will(returnValue(true));
-
-                allowing(grid).getCell(69);
+                allowing(grid).getCellValue(69);
                 will(returnValue(3));
 
                 // Expect all remaining grid cells to not have a value
-                allowing(grid).cellHasValue(with(any(Integer.class)));
-                will(returnValue(false));
+                allowing(grid).getCellValue(with(any(Integer.class)));
+                will(returnValue(Grid.EMPTY));
             }
         });
         assertTrue(solver.hasDuplicates());
+        assertSame(DuplicateValue.of(DuplicateValue.UnitType.COLUMN, 6, 3), solver.findDuplicate());
     }
     
     @Test
     public void testThatGridShouldHaveDuplicatesWhenSameNumbersInSameSubGrid() {
         context.checking(new Expectations() {
             {
-                allowing(grid).cellHasValue(30);
-                will(returnValue(true));
-
-                allowing(grid).getCell(30);
+                allowing(grid).getCellValue(30);
                 will(returnValue(7));
 
-                allowing(grid).cellHasValue(50);
-                will(returnValue(true));
-
-                allowing(grid).getCell(50);
+                allowing(grid).getCellValue(50);
                 will(returnValue(7));
 
                 // Expect all remaining grid cells to not have a value
-                allowing(grid).cellHasValue(with(any(Integer.class)));
-                will(returnValue(false));
+                allowing(grid).getCellValue(with(any(Integer.class)));
+                will(returnValue(Grid.EMPTY));
             }
         });
 
         assertTrue(solver.hasDuplicates());
+        assertSame(DuplicateValue.of(DuplicateValue.UnitType.SUB_GRID, 4, 7), solver.findDuplicate());
+    }
+
+    @Test
+    public void testThatASolvedGridHasNoDuplicate() {
+        final Grid solvedGrid = new Grid();
+        solvedGrid.loadGridFromString("693784512487512936125963874932651487568247391741398625319475268856129743274836159");
+        final Solver solvedGridSolver = new Solver(solvedGrid);
+        assertNull(solvedGridSolver.findDuplicate());
+        assertFalse(solvedGridSolver.hasDuplicates());
     }
 
     @Test
@@ -112,14 +113,14 @@ public class SolverTest {
 
     @Test
     public void testThatSolveShouldFailWhenOneCellHasNoValueAndHasNoCandidate() {
-        final List<Integer> noCandidate = createEmptyCandidatesList();
+        final int noCandidate = createEmptyCandidatesMask();
 
         context.checking(new Expectations() {
             {
                 allowing(grid).cellHasValue(with(equal(36)));
                 will(returnValue(false));
 
-                allowing(grid).getCandidatesFor(with(equal(36)));
+                allowing(grid).getCandidateMaskFor(with(equal(36)));
                 will(returnValue(noCandidate));
 
                 // Expect all remaining grid cells to have a value
@@ -133,14 +134,14 @@ public class SolverTest {
     
     @Test
     public void testThatSolveShouldWorkWhenOneCellHasNoValueButHasAtLeastOneCandidate() {
-        final List<Integer> oneCandidate = createCandidatesList(1);
+        final int oneCandidate = createCandidatesMask(1);
 
         context.checking(new Expectations() {
             {
                 allowing(grid).cellHasValue(with(equal(22)));
                 will(returnValue(false));
 
-                allowing(grid).getCandidatesFor(with(equal(22)));
+                allowing(grid).getCandidateMaskFor(with(equal(22)));
                 will(returnValue(oneCandidate));
 
                 one(grid).setCell(with(equal(22)), with(equal(new Integer(1))));
@@ -160,14 +161,14 @@ public class SolverTest {
                 allowing(grid).cellHasValue(with(equal(16)));
                 will(returnValue(false));
 
-                allowing(grid).getCandidatesFor(with(equal(16)));
-                will(returnValue(createCandidatesList(1, 2)));
+                allowing(grid).getCandidateMaskFor(with(equal(16)));
+                will(returnValue(createCandidatesMask(1, 2)));
 
                 one(grid).cellHasValue(with(equal(17)));
                 will(returnValue(false));
 
-                one(grid).getCandidatesFor(with(equal(17)));
-                will(returnValue(createEmptyCandidatesList()));
+                one(grid).getCandidateMaskFor(with(equal(17)));
+                will(returnValue(createEmptyCandidatesMask()));
 
                 one(grid).setCell(with(equal(16)), with(equal(1)));
                 one(grid).setCell(with(equal(16)), with(equal(2)));
@@ -188,8 +189,8 @@ public class SolverTest {
                 allowing(grid).cellHasValue(with(equal(16)));
                 will(returnValue(false));
 
-                allowing(grid).getCandidatesFor(with(equal(16)));
-                will(returnValue(createCandidatesList(1, 2)));
+                allowing(grid).getCandidateMaskFor(with(equal(16)));
+                will(returnValue(createCandidatesMask(1, 2)));
 
                 allowing(grid).cellHasValue(with(equal(17)));
                 will(returnValue(false));
@@ -197,11 +198,11 @@ public class SolverTest {
                 allowing(grid).cellHasValue(with(equal(17)));
                 will(returnValue(true));
 
-                allowing(grid).getCandidatesFor(with(equal(17)));
-                will(returnValue(createEmptyCandidatesList()));
+                allowing(grid).getCandidateMaskFor(with(equal(17)));
+                will(returnValue(createEmptyCandidatesMask()));
 
-                allowing(grid).getCandidatesFor(with(equal(17)));
-                will(returnValue(createCandidatesList(1)));
+                allowing(grid).getCandidateMaskFor(with(equal(17)));
+                will(returnValue(createCandidatesMask(1)));
 
                 one(grid).setCell(with(equal(16)), with(equal(1)));
                 one(grid).setCell(with(equal(16)), with(equal(2)));
@@ -235,10 +236,23 @@ public class SolverTest {
     }
 
     @Test
-    @Ignore("This test is way to long to execute")
-    public void testThatSolverSolvesAnotherVeryHardProblem() {
+    public void testThatBranchingOnTheFewestPlacesOfAValueFindsThereIsNoSolutionQuickly() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(NO_SOLUTION_AFTER_A_LONG_SEARCH);
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        solver.setTryLimit(20000);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.UNSOLVABLE, solver.getStatistics().getOutcome());
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatSolverSolvesAnotherOneVeryHardProblem() {
         final Grid grid = new Grid();
-        grid.loadGridFromString(". . . |. . 5 |. 8 . . . . |6 . 1 |. 4 3 . . . |. . . |. . . ------+------+------. 1 . |5 . . |. . . . . . |1 . 6 |. . . 3 . . |. . . |. . 5 ------+------+------5 3 . |. . . |. 6 1 . . . |. . . |. . 4 . . . |. . . |. . .");
+        grid.loadGridFromString(".....6....59.....82....8....45........3........6..3.54...325..6..................");
         final Solver solver = new Solver(grid);
         final boolean solved = solver.solve();
         System.out.println(grid);
@@ -246,21 +260,254 @@ public class SolverTest {
     }
 
     @Test
-    public void testThatSolverSolvesAnotherOneVeryHardProblem() {
+    public void testThatSolverSolvesAVeryHardProblemWhenBranchingOnFewestCandidates() {
         final Grid grid = new Grid();
-        grid.loadGridFromString(".....6....59.....82....8....45........3........6..3.54...325..6..................");
-        final Solver solver = new Solver(grid);
+        grid.loadGridFromString(".......1.4.........2...........5.4.7..8...3....1.9....3..4..2...5.1........8.6...");
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
         final boolean solved = solver.solve();
         System.out.println(grid);
         assertTrue(solved);
+        assertFalse(solver.hasDuplicates());
+    }
+
+    @Test
+    public void testThatBranchingOnFewestCandidatesNeedsLessTriesThanRowMajorOrder() {
+        final String sudoku = ".......1.4.........2...........5.4.7..8...3....1.9....3..4..2...5.1........8.6...";
+        final Grid rowMajorGrid = new Grid();
+        rowMajorGrid.loadGridFromString(sudoku);
+        final Solver rowMajorSolver = new Solver(rowMajorGrid, SearchStrategy.ROW_MAJOR);
+        rowMajorSolver.setTryLimit(100000);
+        assertFalse(rowMajorSolver.solve());
+        assertEquals(SolveOutcome.TIMED_OUT, rowMajorSolver.getStatistics().getOutcome());
+
+        final Grid fewestCandidatesGrid = new Grid();
+        fewestCandidatesGrid.loadGridFromString(sudoku);
+        final Solver fewestCandidatesSolver = new Solver(fewestCandidatesGrid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        fewestCandidatesSolver.setTryLimit(100000);
+        assertTrue(fewestCandidatesSolver.solve());
+    }
+
+    @Test
+    public void testThatSolverSolvesAVeryHardProblemWithoutGuessingWhenPropagatingConstraints() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(".......1.4.........2...........5.4.7..8...3....1.9....3..4..2...5.1........8.6...");
+        final Solver solver = new Solver(grid);
+        solver.setConstraintPropagation(true);
+        assertTrue(solver.solve());
+        assertEquals(0, solver.getStatistics().getTries());
+        assertEquals(64, solver.getStatistics().getPropagations());
+        assertFalse(solver.hasDuplicates());
+    }
+
+    @Test
+    public void testThatPropagatingConstraintsDuringSearchNeedsLessTries() {
+        final String sudoku = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        final Grid grid = new Grid();
+        grid.loadGridFromString(sudoku);
+        final Solver solver = new Solver(grid);
+        solver.setConstraintPropagation(true);
+        assertTrue(solver.solve());
+        assertFalse(solver.hasDuplicates());
+
+        final Grid unpropagatedGrid = new Grid();
+        unpropagatedGrid.loadGridFromString(sudoku);
+        final Solver unpropagatedSolver = new Solver(unpropagatedGrid);
+        assertTrue(unpropagatedSolver.solve());
+
+        assertTrue(solver.getStatistics().getTries() < unpropagatedSolver.getStatistics().getTries());
+        assertEquals(unpropagatedGrid.toString(), grid.toString());
+    }
+
+    @Test
+    public void testThatAFailedSolveWithPropagationLeavesTheGridUnchanged() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("12345678.........9...............................................................");
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid);
+        solver.setConstraintPropagation(true);
+        assertFalse(solver.solve());
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatStatisticsBelongToEachSolve() {
+        final String sudoku = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        final Grid grid = new Grid();
+        grid.loadGridFromString(sudoku);
+        final Solver solver = new Solver(grid);
+        assertTrue(solver.solve());
+        final SolveStatistics statistics = solver.getStatistics();
+
+        final Grid otherGrid = new Grid();
+        otherGrid.loadGridFromString(sudoku);
+        final Solver otherSolver = new Solver(otherGrid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        assertTrue(otherSolver.solve());
+
+        assertEquals(49558, statistics.getTries());
+        assertEquals(statistics.getTries() - 60, statistics.getBacktracks());
+        assertEquals(60, statistics.getMaxDepth());
+        assertTrue(statistics.getElapsedNanos() > 0);
+        assertNotSame(statistics, otherSolver.getStatistics());
+        assertTrue(otherSolver.getStatistics().getTries() != statistics.getTries());
     }
 
-    private List<Integer> createEmptyCandidatesList() {
-        return new ArrayList<Integer>(0);
+    @Test
+    public void testThatAWellFormedPuzzleHasAUniqueSolution() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+
+        assertTrue(solver.hasUniqueSolution());
+        assertEquals(1, solver.countSolutions(10));
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatCountingSolutionsStopsAtTheLimit() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(".....6....59.....82....8....45........3........6..3.54...325..6..................");
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+
+        assertFalse(solver.hasUniqueSolution());
+        assertEquals(25, solver.countSolutions(25));
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatAPuzzleWithoutSolutionHasNone() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("82.........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid);
+        solver.setConstraintPropagation(true);
+
+        assertEquals(0, solver.countSolutions(2));
+        assertFalse(solver.hasUniqueSolution());
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatSolverRunsOnAThreadWithASmallStack() throws InterruptedException {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(".....6....59.....82....8....45........3........6..3.54...325..6..................");
+        final Solver solver = new Solver(grid);
+        final boolean[] solved = new boolean[1];
+        final Thread thread = new Thread(null, new Runnable() {
+            public void run() {
+                solved[0] = solver.solve();
+            }
+        }, "small-stack-solver", 16 * 1024);
+        thread.start();
+        thread.join();
+
+        assertTrue(solved[0]);
+        assertEquals(64, solver.getStatistics().getMaxDepth()); // every empty cell guessed
+    }
+
+    private int createEmptyCandidatesMask() {
+        return 0;
     }
     
-    private List<Integer> createCandidatesList(final Integer... candidates) {
-        return Arrays.asList(candidates);
+    private int createCandidatesMask(final Integer... candidates) {
+        int mask = 0;
+        for (final Integer candidate : candidates) {
+            mask |= Grid.bitFor(candidate);
+        }
+        return mask;
+    }
+
+    @Test
+    public void testThatLargerGridsAreSolvedWithPropagationAndFewestCandidates() {
+        for (int boxSize = GridLayout.MIN_BOX_SIZE; boxSize <= GridLayout.MAX_BOX_SIZE; ++boxSize) {
+            final Grid grid = GridLayoutTest.createPatternPuzzle(boxSize, 60, boxSize);
+            final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+            solver.setConstraintPropagation(true);
+
+            assertTrue(solver.solve());
+            assertFalse(solver.hasDuplicates());
+            for (int cellIndex = 0; cellIndex < grid.getCellCount(); ++cellIndex) {
+                assertTrue(grid.cellHasValue(cellIndex));
+            }
+        }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testThatADuplicateLetterIsFoundInA16x16Row() {
+        final Grid grid = new Grid(4);
+        grid.setCell(3, 16);
+        grid.setCell(15, 16);
+
+        final DuplicateValue duplicate = new Solver(grid).findDuplicate();
+        assertEquals(DuplicateValue.UnitType.ROW, duplicate.getUnitType());
+        assertEquals(0, duplicate.getUnitIndex());
+        assertEquals(16, duplicate.getValue());
+    }
+
+    private static final String INKALA = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String NO_SOLUTION_AFTER_A_LONG_SEARCH = ". . . |. . 5 |. 8 . . . . |6 . 1 |. 4 3 . . . |. . . |. . . ------+------+------. 1 . |5 . . |. . . . . . |1 . 6 |. . . 3 . . |. . . |. . 5 ------+------+------5 3 . |. . . |. 6 1 . . . |. . . |. . 4 . . . |. . . |. . .";
+
+    @Test
+    public void testThatASolveOutOfTimeGivesUpWithATimedOutOutcome() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(NO_SOLUTION_AFTER_A_LONG_SEARCH);
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid);
+        solver.setTimeLimit(50, TimeUnit.MILLISECONDS);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.TIMED_OUT, solver.getStatistics().getOutcome());
+        assertTrue(solver.getStatistics().getTries() > 0);
+        assertTrue(solver.getStatistics().getElapsedNanos() < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(before, grid.toString());
+    }
+
+    @Test
+    public void testThatASolveStopsAfterItsTryLimit() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(INKALA);
+        final String before = grid.toString();
+        final Solver solver = new Solver(grid);
+        solver.setTryLimit(1000);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.TIMED_OUT, solver.getStatistics().getOutcome());
+        assertEquals(1000, solver.getStatistics().getTries());
+        assertEquals(before, grid.toString());
+        assertFalse(solver.hasUniqueSolution());
+
+        solver.setTryLimit(100000);
+        assertTrue(solver.solve());
+        assertEquals(SolveOutcome.SOLVED, solver.getStatistics().getOutcome());
+    }
+
+    @Test
+    public void testThatACancelledTokenStopsTheSolveBeforeItsFirstTry() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString(INKALA);
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        final Solver solver = new Solver(grid);
+        solver.setCancellationToken(token);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.CANCELLED, solver.getStatistics().getOutcome());
+        assertEquals(0, solver.getStatistics().getTries());
+        assertTrue(SolveOutcome.CANCELLED.isStopped());
+    }
+
+    @Test
+    public void testThatAnExhaustedSearchIsUnsolvable() {
+        final Grid grid = new Grid();
+        grid.loadGridFromString("12345678.........9...............................................................");
+        final Solver solver = new Solver(grid);
+        solver.setTryLimit(1000);
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.UNSOLVABLE, solver.getStatistics().getOutcome());
+        assertFalse(SolveOutcome.UNSOLVABLE.isStopped());
+    }
+}
@@ -0,0 +1,130 @@
+package com.iweb.sudoku;
+
+import org.junit.internal.runners.JUnit4ClassRunner;
+import org.junit.runner.RunWith;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+@RunWith(JUnit4ClassRunner.class)
+public class TechniquePipelineTest {
+    private static final String NO_SOLUTION = "12345678.........9...............................................................";
+    // Singles alone get stuck on it, locked candidates solve it outright
+    private static final String SEVENTEEN_CLUES = "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......";
+    private static final String SEVENTEEN_CLUES_SOLUTION = "417369825632158947958724316825437169791586432346912758289643571573291684164875293";
+
+    private static Solver createSolver(final Grid grid) {
+        final Solver solver = new Solver(grid, SearchStrategy.MINIMUM_REMAINING_VALUES);
+        solver.setConstraintPropagation(true);
+        return solver;
+    }
+
+    @Test
+    public void testThatSinglesAloneNeedNoTechnique() {
+        final GeneratedPuzzle generated = new PuzzleGenerator(1L).generate(Difficulty.EASY);
+        final Grid grid = generated.getPuzzle().copy();
+
+        final ReductionResult result = TechniquePipeline.standard().reduce(grid);
+        assertTrue(result.isSolved());
+        assertNull(result.getHardestTechnique());
+        assertEquals(81 - generated.getClueCount(), result.getPlacementCount());
+        assertEquals(generated.getSolution().toCompactString(), grid.toCompactString());
+    }
+
+    @Test
+    public void testThatTheHardestTechniqueAppliedIsReported() {
+        final Grid grid = GridFixtures.createGrid(SEVENTEEN_CLUES);
+        final TechniquePipeline pipeline = TechniquePipeline.standard();
+
+        final ReductionResult result = pipeline.reduce(grid);
+        assertTrue(result.isSolved());
+        assertEquals(SEVENTEEN_CLUES_SOLUTION, grid.toCompactString());
+        final DeductionTechnique lockedCandidates = pipeline.getTechniques().get(0);
+        assertSame(lockedCandidates, result.getHardestTechnique());
+        assertTrue(result.getApplicationCount(lockedCandidates) > 0);
+        assertEquals(0, result.getApplicationCount(new XWing()));
+    }
+
+    @Test
+    public void testThatAContradictionIsFound() {
+        final Grid grid = GridFixtures.createGrid(NO_SOLUTION);
+        assertTrue(TechniquePipeline.standard().reduce(grid).isContradiction());
+    }
+
+    @Test
+    public void testThatTheSolverGuessesLessAfterTheTechniques() {
+        final Grid withoutTechniques = GridFixtures.createGrid(SEVENTEEN_CLUES);
+        final Solver plainSolver = createSolver(withoutTechniques);
+        assertTrue(plainSolver.solve());
+        assertNull(plainSolver.getReduction());
+
+        final Grid grid = GridFixtures.createGrid(SEVENTEEN_CLUES);
+        final Solver solver = createSolver(grid);
+        solver.setTechniques(TechniquePipeline.standard());
+        assertTrue(solver.solve());
+        assertEquals(SEVENTEEN_CLUES_SOLUTION, grid.toCompactString());
+        assertTrue(solver.getReduction().isSolved());
+        assertEquals(0, solver.getStatistics().getTries());
+        assertTrue(plainSolver.getStatistics().getTries() > 0);
+    }
+
+    @Test
+    public void testThatTheSolverPutsBackTheGridWhenThereIsNoSolution() {
+        final Grid grid = GridFixtures.createGrid(NO_SOLUTION);
+        final Solver solver = createSolver(grid);
+        solver.setTechniques(TechniquePipeline.standard());
+
+        assertFalse(solver.solve());
+        assertEquals(SolveOutcome.UNSOLVABLE, solver.getStatistics().getOutcome());
+        assertEquals(NO_SOLUTION, grid.toCompactString());
+    }
+
+    @Test
+    public void testThatCountingSolutionsLeavesNoCandidateExcluded() {
+        final Grid grid = GridFixtures.createGrid(SEVENTEEN_CLUES);
+        final Grid untouched = grid.copy();
+        final Solver solver = createSolver(grid);
+        solver.setTechniques(TechniquePipeline.standard());
+
+        assertTrue(solver.hasUniqueSolution());
+        for (int cellIndex = 0; cellIndex < grid.getCellCount(); ++cellIndex) {
+            assertEquals(untouched.getCandidateMaskFor(cellIndex), grid.getCandidateMaskFor(cellIndex));
+        }
+        assertEquals(SEVENTEEN_CLUES, grid.toCompactString());
+    }
+
+    @Test
+    public void testThatTheSolverFindsTheSameSolutionsWithTechniques() {
+        for (int seed = 0; seed < 20; ++seed) {
+            final GeneratedPuzzle generated = new PuzzleGenerator(seed).generate();
+            final Grid grid = generated.getPuzzle().copy();
+            final Solver solver = createSolver(grid);
+            solver.setTechniques(TechniquePipeline.standard());
+
+            assertTrue(solver.hasUniqueSolution());
+            assertTrue(solver.solve());
+            assertEquals(generated.getSolution().toCompactString(), grid.toCompactString());
+        }
+    }
+
+    @Test
+    public void testThatClearingCellsAfterATechniqueSolveLeavesNoExclusionBehind() {
+        final Grid grid = GridFixtures.createGrid(SEVENTEEN_CLUES);
+        final Solver solver = createSolver(grid);
+        solver.setTechniques(TechniquePipeline.standard());
+        assertTrue(solver.solve());
+
+        // Back to the puzzle without its first clue, which then has many solutions
+        for (int cellIndex = 0; cellIndex < grid.getCellCount(); ++cellIndex) {
+            if (cellIndex == 0 || SEVENTEEN_CLUES.charAt(cellIndex) == '.') {
+                grid.clearCell(cellIndex);
+            }
+        }
+        final Grid sixteenClues = GridFixtures.createGrid("." + SEVENTEEN_CLUES.substring(1));
+        for (int cellIndex = 0; cellIndex < grid.getCellCount(); ++cellIndex) {
+            assertEquals(sixteenClues.getCandidateMaskFor(cellIndex), grid.getCandidateMaskFor(cellIndex));
+        }
+        assertEquals(2, solver.countSolutions(2));
+        assertFalse(solver.hasUniqueSolution());
+    }
+}